@@ -2,13 +2,15 @@ package com.it.gateway.config;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.it.gateway.service.Security.CustomUserDetailsService;
 import com.it.gateway.service.Security.JwtService;
+import com.it.gateway.service.Security.VerifiedToken;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 
 import java.io.IOException;
 import jakarta.servlet.FilterChain;
@@ -22,11 +24,9 @@ import lombok.extern.slf4j.Slf4j;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final CustomUserDetailsService customUserDetailsService;
 
-    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthFilter(JwtService jwtService) {
         this.jwtService = jwtService;
-        this.customUserDetailsService = customUserDetailsService;
     }
 
     @Override
@@ -46,24 +46,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = jwtService.extractUsername(jwt);
-        if (!isValidToken(jwt, username)) {
-            sendUnauthorizedResponse(response, "Invalid token");
+        // Parsed and verified once; expiry is checked by the parser
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(jwt);
+        } catch (ExpiredJwtException e) {
+            sendUnauthorizedResponse(response, "Token expired - user: " + e.getClaims().getSubject());
             return;
-        }
-
-        if (jwtService.isTokenExpired(jwt)) {
-            sendUnauthorizedResponse(response, "Token expired - user: " + username);
+        } catch (JwtException | IllegalArgumentException e) {
+            sendUnauthorizedResponse(response, "Invalid token - " + e.getMessage());
             return;
         }
 
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-        if (userDetails == null) {
-            sendUnauthorizedResponse(response, "User not found - user: " + username);
+        if (!jwtService.isTokenValid(token)) {
+            sendUnauthorizedResponse(response, "Invalid token");
             return;
         }
 
-        setAuthentication(userDetails, request);
+        // The principal comes from the verified claims; no user lookup is needed
+        setAuthentication(token, request);
         filterChain.doFilter(request, response);
     }
 
@@ -86,18 +87,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return authHeader.substring(7);
     }
 
-    private boolean isValidToken(String jwt, String username) {
-        return username != null && jwtService.isTokenValid(jwt, username);
-    }
-
     private void sendUnauthorizedResponse(HttpServletResponse response, String message) {
         log.warn(message);
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
     }
 
-    private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
+    private void setAuthentication(VerifiedToken token, HttpServletRequest request) {
+        // The verified token is kept as credentials so logout can revoke it
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+                token.principal(), token, token.principal().authorities());
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authToken);
     }
@@ -1,6 +1,7 @@
 package com.it.gateway.config;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.HashMap;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -11,14 +12,21 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.JacksonUtils;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
-
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Kafka.KafkaPayloadTypes;
 
 import lombok.RequiredArgsConstructor;
 
@@ -39,6 +47,32 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.properties.sasl.jaas.config}")
     private String saslJaasConfig;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    @Value("${gateway.kafka.reply-routing.partitions:3}")
+    private int replyTopicPartitions;
+
+    @Value("${gateway.kafka.producer.max-block-ms:2000}")
+    private int producerMaxBlockMs;
+
+    @Value("${gateway.kafka.producer.request-timeout-ms:5000}")
+    private int producerRequestTimeoutMs;
+
+    @Value("${gateway.kafka.producer.delivery-timeout-ms:10000}")
+    private int producerDeliveryTimeoutMs;
+
+    @Value("${gateway.kafka.codec.smile-topics:}")
+    private String[] smileTopics;
+
+    private final KafkaPayloadTypes kafkaPayloadTypes;
+
 
     @Bean
     public ProducerFactory<String, KafkaMessage> producerFactory() {
@@ -49,9 +83,11 @@ public class KafkaConfig {
 
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+
+        // Fail sends within seconds so callers are not held for the whole reply timeout
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, producerRequestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, producerDeliveryTimeoutMs);
         
         // Security configuration
         if (!profile.equals("dev")) {
@@ -60,7 +96,13 @@ public class KafkaConfig {
         }
         
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+        JsonSerializer<KafkaMessage> jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(true);
+
+        KafkaMessageSerializer valueSerializer =
+            new KafkaMessageSerializer(jsonSerializer, kafkaSmileMapper(), Set.of(smileTopics));
+
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
     }
 
     @Bean
@@ -74,6 +116,9 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // New reply and change groups must not skip records produced before their first poll
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         
         // Security configuration
         if (!profile.equals("dev")) {
@@ -83,13 +128,20 @@ public class KafkaConfig {
         
 
 
-        JsonDeserializer<KafkaMessage> jsonDeserializer = new JsonDeserializer<>(KafkaMessage.class);
+        // Values are always KafkaMessage; payloads are typed by operationType instead of type headers
+        ObjectMapper jsonMapper = JacksonUtils.enhancedObjectMapper()
+            .registerModule(TypedKafkaMessageDeserializer.module(kafkaPayloadTypes));
+        JsonDeserializer<KafkaMessage> jsonDeserializer = new JsonDeserializer<>(KafkaMessage.class, jsonMapper);
+        jsonDeserializer.setUseTypeHeaders(false);
         jsonDeserializer.addTrustedPackages("*");
         jsonDeserializer.setRemoveTypeHeaders(false);
         jsonDeserializer.setUseTypeMapperForKey(true);
         
+        KafkaMessageDeserializer valueDeserializer =
+            new KafkaMessageDeserializer(jsonDeserializer, kafkaSmileMapper().reader());
+
         ErrorHandlingDeserializer<KafkaMessage> errorHandlingDeserializer = 
-            new ErrorHandlingDeserializer<>(jsonDeserializer);
+            new ErrorHandlingDeserializer<>(valueDeserializer);
         
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, errorHandlingDeserializer.getClass());
         return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), errorHandlingDeserializer);
@@ -100,9 +152,44 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, KafkaMessage> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+
+        // Run the consumer loops and listeners on virtual threads in virtual-thread mode
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
         return factory;
 
     }
 
+    /**
+     * Smile mapper with the same date handling and leniency as the JSON codec
+     */
+    private ObjectMapper kafkaSmileMapper() {
+        return SmileMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(TypedKafkaMessageDeserializer.module(kafkaPayloadTypes))
+                .build();
+    }
+
+    /**
+     * Reply topics owned by this instance, created on startup in per-instance routing mode.
+     * They are never deleted by the gateway; see {@link KafkaReplyRouting} for cleanup.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics replyTopics(KafkaReplyRouting replyRouting) {
+        if (!replyRouting.isPerInstance()) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+            TopicBuilder.name(replyRouting.getUserReplyTopic()).partitions(replyTopicPartitions).build(),
+            TopicBuilder.name(replyRouting.getTicketReplyTopic()).partitions(replyTopicPartitions).build()
+        );
+    }
+
 
 }
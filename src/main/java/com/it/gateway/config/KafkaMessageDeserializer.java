@@ -0,0 +1,58 @@
+package com.it.gateway.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.it.gateway.enums.KafkaCodec;
+import com.it.gateway.model.Kafka.KafkaMessage;
+
+/**
+ * Reads {@link KafkaMessage} in the format named by the record's content type header,
+ * falling back to JSON when the header is missing.
+ */
+public class KafkaMessageDeserializer implements Deserializer<KafkaMessage> {
+    private final JsonDeserializer<KafkaMessage> jsonDeserializer;
+    private final ObjectReader smileReader;
+
+    public KafkaMessageDeserializer(JsonDeserializer<KafkaMessage> jsonDeserializer, ObjectReader smileReader) {
+        this.jsonDeserializer = jsonDeserializer;
+        this.smileReader = smileReader.forType(KafkaMessage.class);
+    }
+
+    @Override
+    public KafkaMessage deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public KafkaMessage deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (codecOf(headers) == KafkaCodec.SMILE) {
+            try {
+                return smileReader.readValue(data);
+            } catch (Exception e) {
+                throw new SerializationException("Can't deserialize Smile KafkaMessage from topic: " + topic, e);
+            }
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+
+    private KafkaCodec codecOf(Headers headers) {
+        Header header = headers.lastHeader(KafkaCodec.CONTENT_TYPE_HEADER);
+        return header == null ? KafkaCodec.JSON
+                : KafkaCodec.fromContentType(new String(header.value(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.it.gateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.enums.KafkaCodec;
+import com.it.gateway.model.Kafka.KafkaMessage;
+
+/**
+ * Writes {@link KafkaMessage} as Smile on the configured topics and as JSON (with
+ * Spring type headers, as before) everywhere else. Every record names its format in the
+ * content type header. The format is chosen statically per topic by configuration; the
+ * backend owning a Smile topic must be able to read Smile before the topic is listed.
+ */
+public class KafkaMessageSerializer implements Serializer<KafkaMessage> {
+    private final JsonSerializer<KafkaMessage> jsonSerializer;
+    private final ObjectMapper smileMapper;
+    private final Set<String> smileTopics;
+
+    public KafkaMessageSerializer(JsonSerializer<KafkaMessage> jsonSerializer, ObjectMapper smileMapper, Set<String> smileTopics) {
+        this.jsonSerializer = jsonSerializer;
+        this.smileMapper = smileMapper;
+        this.smileTopics = smileTopics;
+    }
+
+    @Override
+    public byte[] serialize(String topic, KafkaMessage data) {
+        return smileTopics.contains(topic) ? writeSmile(data) : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, KafkaMessage data) {
+        if (data == null) {
+            return null;
+        }
+        KafkaCodec codec = smileTopics.contains(topic) ? KafkaCodec.SMILE : KafkaCodec.JSON;
+        headers.remove(KafkaCodec.CONTENT_TYPE_HEADER);
+        headers.add(KafkaCodec.CONTENT_TYPE_HEADER, codec.getContentType().getBytes(StandardCharsets.UTF_8));
+
+        return codec == KafkaCodec.SMILE ? writeSmile(data) : jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+
+    private byte[] writeSmile(KafkaMessage data) {
+        try {
+            return smileMapper.writeValueAsBytes(data);
+        } catch (Exception e) {
+            throw new SerializationException("Can't serialize KafkaMessage as Smile", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.it.gateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.enums.Constant;
+import com.it.gateway.model.Kafka.KafkaMessage;
+
+import lombok.Getter;
+
+/**
+ * Decides where backends must send replies for this gateway instance.
+ *
+ * In per-instance mode every node consumes its own reply topics
+ * ({@code <response-topic>.<instance-id>}) with its own consumer group, and each
+ * request carries the reply topic in the {@link KafkaHeaders#REPLY_TOPIC} header, so
+ * a reply always lands on the node holding the pending future. In shared mode every
+ * node reads the common response topics in its own consumer group, so every node sees
+ * every reply and keeps only those addressed to it: by the {@link #INSTANCE_HEADER}
+ * when the backend echoes it, otherwise by whether it holds the pending request.
+ *
+ * Shared mode is the default because it works with backends that ignore the reply
+ * topic header; its cost is that each node decodes all replies. A shared-mode node
+ * without a configured id gets a random one, and its reply groups start from the
+ * latest offset so a restart does not replay the retained replies of every earlier
+ * run; with a stable id they start from the earliest. Per-instance mode requires an explicit, stable {@code gateway.instance-id}
+ * (e.g. a StatefulSet pod name) and refuses to start without one: two nodes with the
+ * same id would consume each other's replies, and an id that changes on every restart
+ * leaves a new pair of reply topics and a consumer group behind each time. Topics of
+ * retired instances are not deleted by the gateway and must be removed by operations
+ * ({@code kafka-topics.sh --delete --topic '<response-topic>.<instance-id>'}); their
+ * consumer groups expire with the broker's {@code offsets.retention.minutes}.
+ */
+@Component("kafkaReplyRouting")
+@Getter
+public class KafkaReplyRouting {
+    public static final String INSTANCE_HEADER = "gateway_instance";
+
+    private final String instanceId;
+    private final boolean perInstance;
+    private final String userReplyTopic;
+    private final String ticketReplyTopic;
+    private final String groupId;
+    // Offset reset of the reply groups: a group that will not outlive this process skips history
+    private final String replyOffsetReset;
+    // Change events must reach every node, so their consumer group is always per instance
+    private final String changeGroupId;
+
+    public KafkaReplyRouting(
+            @Value("${gateway.instance-id:}") String instanceId,
+            @Value("${gateway.kafka.reply-routing.per-instance:false}") boolean perInstance) {
+        if (perInstance && instanceId.isBlank()) {
+            throw new IllegalStateException(
+                "gateway.kafka.reply-routing.per-instance=true requires a stable, unique gateway.instance-id");
+        }
+        // Without a configured id this node's groups still must not collide with its peers
+        this.instanceId = (instanceId.isBlank() ? "gateway-" + UUID.randomUUID() : instanceId)
+            .replaceAll("[^a-zA-Z0-9._-]", "-");
+        this.perInstance = perInstance;
+        this.userReplyTopic = replyTopic(Constant.USER_EVENT_RESPONSE);
+        this.ticketReplyTopic = replyTopic(Constant.TICKET_EVENT_RESPONSE);
+        this.groupId = Constant.EVENT_GROUP + "." + this.instanceId;
+        this.replyOffsetReset = instanceId.isBlank() ? "latest" : "earliest";
+        this.changeGroupId = Constant.EVENT_GROUP + ".changes." + this.instanceId;
+    }
+
+    public String replyTopicFor(String requestTopic) {
+        return switch (requestTopic) {
+            case Constant.USER_EVENT_REQUEST -> userReplyTopic;
+            case Constant.TICKET_EVENT_REQUEST -> ticketReplyTopic;
+            default -> throw new IllegalArgumentException("No reply topic for request topic: " + requestTopic);
+        };
+    }
+
+    /**
+     * Whether a reply names another gateway instance in its {@link #INSTANCE_HEADER}.
+     */
+    public boolean isForAnotherInstance(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(INSTANCE_HEADER);
+        return header != null && header.value() != null
+            && !instanceId.equals(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public ProducerRecord<String, KafkaMessage> requestRecord(String requestTopic, String key, KafkaMessage message) {
+        ProducerRecord<String, KafkaMessage> record = new ProducerRecord<>(requestTopic, key, message);
+        record.headers().add(KafkaHeaders.REPLY_TOPIC, replyTopicFor(requestTopic).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(INSTANCE_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+        // Echoed by @SendTo backends, so replies that cannot be decoded can still be matched
+        record.headers().add(KafkaHeaders.CORRELATION_ID, key.getBytes(StandardCharsets.UTF_8));
+        if (message.getDeadline() != null) {
+            record.headers().add(Constant.DEADLINE_HEADER,
+                String.valueOf(message.getDeadline()).getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    private String replyTopic(String baseTopic) {
+        return perInstance ? baseTopic + "." + instanceId : baseTopic;
+    }
+}
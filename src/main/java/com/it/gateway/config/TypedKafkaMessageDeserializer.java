@@ -0,0 +1,109 @@
+package com.it.gateway.config;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.it.gateway.enums.Constant;
+import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Kafka.KafkaPayloadTypes;
+
+/**
+ * Decodes the {@code payload} of a {@link KafkaMessage} directly into the type registered
+ * for its {@code operationType}, instead of building a generic map tree that handlers
+ * convert a second time.
+ *
+ * Every other field is read by Jackson's regular bean deserializer, so fields added to
+ * {@link KafkaMessage} later are picked up without changes here. Only the payload
+ * property is replaced: its tokens are buffered and decoded once the whole object has
+ * been read, so the type choice does not depend on whether {@code operationType} or
+ * {@code status} come before {@code payload}. Error replies and unregistered operations
+ * keep an untyped payload.
+ */
+public class TypedKafkaMessageDeserializer extends DelegatingDeserializer {
+    private static final PropertyName PAYLOAD = PropertyName.construct("payload");
+
+    private final transient KafkaPayloadTypes payloadTypes;
+
+    public TypedKafkaMessageDeserializer(JsonDeserializer<?> beanDeserializer, KafkaPayloadTypes payloadTypes) {
+        super(beanDeserializer);
+        this.payloadTypes = payloadTypes;
+    }
+
+    public static SimpleModule module(KafkaPayloadTypes payloadTypes) {
+        return new SimpleModule("typed-kafka-message").setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                         BeanDeserializerBuilder builder) {
+                SettableBeanProperty payload = isKafkaMessage(beanDesc) ? builder.findProperty(PAYLOAD) : null;
+                if (payload != null) {
+                    builder.addOrReplaceProperty(payload.withValueDeserializer(new BufferingDeserializer()), true);
+                }
+                return builder;
+            }
+
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                return isKafkaMessage(beanDesc) ? new TypedKafkaMessageDeserializer(deserializer, payloadTypes) : deserializer;
+            }
+        });
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+        return new TypedKafkaMessageDeserializer(newDelegatee, payloadTypes);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Object value = super.deserialize(p, ctxt);
+        if (value instanceof KafkaMessage message && message.getPayload() instanceof TokenBuffer bufferedPayload) {
+            try (JsonParser payloadParser = bufferedPayload.asParserOnFirstToken()) {
+                message.setPayload(readPayload(payloadParser, ctxt, message));
+            }
+        }
+        return value;
+    }
+
+    private Object readPayload(JsonParser p, DeserializationContext ctxt, KafkaMessage message) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        JavaType payloadType = Constant.ResponseStatus.ERROR.getValue().equals(message.getStatus())
+                ? null
+                : payloadTypes.get(message.getOperationType());
+        return payloadType != null ? ctxt.readValue(p, payloadType) : ctxt.readValue(p, Object.class);
+    }
+
+    private static boolean isKafkaMessage(BeanDescription beanDesc) {
+        return beanDesc.getBeanClass() == KafkaMessage.class;
+    }
+
+    /**
+     * Holds the raw payload tokens until the rest of the message has been read.
+     */
+    private static final class BufferingDeserializer extends StdDeserializer<Object> {
+        private BufferingDeserializer() {
+            super(Object.class);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return ctxt.bufferAsCopyOfValue(p);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.it.gateway.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier (e.g. blocking inside a
+ * {@code synchronized} block in Lettuce, Jackson or the Kafka client) longer than the
+ * configured threshold. Events come from the JFR {@code jdk.VirtualThreadPinned} stream,
+ * so no JVM flags are needed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = { "spring.threads.virtual.enabled", "gateway.threads.pinning-diagnostics.enabled" }, havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 8;
+
+    @Value("${gateway.threads.pinning-diagnostics.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final MeterRegistry meterRegistry;
+
+    private RecordingStream recordingStream;
+    private Counter pinnedCounter;
+
+    @PostConstruct
+    void start() {
+        pinnedCounter = Counter.builder("gateway.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning diagnostics enabled - threshold: {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Virtual thread pinned for {} ms on thread: {}\n{}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown",
+                formatStackTrace(event));
+    }
+
+    private String formatStackTrace(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<no stack trace>";
+        }
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (count++ == MAX_LOGGED_FRAMES) {
+                sb.append("\t...");
+                break;
+            }
+            sb.append("\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(" line: ")
+                    .append(frame.getLineNumber())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -1,17 +1,25 @@
 package com.it.gateway.controller.Ticket;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.it.gateway.model.General.ApiResponse;
 import com.it.gateway.model.Ticket.CategoryInfo;
 import com.it.gateway.service.Ticket.CategoryService;
+import com.it.gateway.utils.EncodedApiResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,21 +29,58 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class CategoryController {
+    private static final byte[] GET_ALL_MESSAGE = EncodedApiResponse.message("Get all categories success");
+
     private final CategoryService categoryService;
 
-    @GetMapping
-    public ApiResponse<List<CategoryInfo>> getAllCategories() {
+    @Value("${gateway.http.reference.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @GetMapping(params = "!ids")
+    public CompletableFuture<ResponseEntity<byte[]>> getAllCategories(@RequestParam(defaultValue = "false") boolean active,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String requestId = UUID.randomUUID().toString();
         log.info("Get all categories request initiated: {}", requestId);
 
-        CompletableFuture<List<CategoryInfo>> response = categoryService.getAllCategories(requestId);
-
-        try {
-            List<CategoryInfo> categories = response.get(60, TimeUnit.SECONDS);
-            return ApiResponse.success(requestId, categories, "Get all categories success");
-        } catch (Exception e) {
-            log.error("Get all categories error: {}", e.getMessage());
-            return ApiResponse.error(requestId, "500", e.getMessage());
+        // A revalidation of the current list is answered without loading it
+        String currentEtag = categoryService.getCurrentCategoriesEtag(active);
+        if (EncodedApiResponse.matches(ifNoneMatch, currentEtag)) {
+            return CompletableFuture.completedFuture(EncodedApiResponse.notModified(currentEtag, cacheControl()));
         }
+
+        // The list is served from its cached JSON encoding; only the envelope is written per request
+        return categoryService.getAllCategoriesEncoded(requestId, active)
+                .thenApply(categories -> EncodedApiResponse.success(requestId, categories, GET_ALL_MESSAGE, ifNoneMatch, cacheControl()));
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ApiResponse<List<CategoryInfo>>> getCategoriesByIds(@RequestParam List<UUID> ids) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get categories by ids request initiated: {} | ids: {}", requestId, ids.size());
+
+        return categoryService.getCategoriesByIds(requestId, ids)
+                .thenApply(categories -> ApiResponse.success(requestId, categories, "Get categories by ids success"));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ApiResponse<CategoryInfo>> getCategoryById(@PathVariable UUID id) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get category by id request initiated: {} | id: {}", requestId, id);
+
+        return categoryService.getCategoryById(requestId, id)
+                .thenApply(category -> ApiResponse.success(requestId, category, "Get category success"));
+    }
+
+    @GetMapping("/code/{code}")
+    public CompletableFuture<ApiResponse<CategoryInfo>> getCategoryByCode(@PathVariable String code) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get category by code request initiated: {} | code: {}", requestId, code);
+
+        return categoryService.getCategoryByCode(requestId, code)
+                .thenApply(category -> ApiResponse.success(requestId, category, "Get category success"));
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate().mustRevalidate();
     }
 }
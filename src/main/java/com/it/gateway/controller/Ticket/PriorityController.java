@@ -1,17 +1,25 @@
 package com.it.gateway.controller.Ticket;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.it.gateway.model.General.ApiResponse;
 import com.it.gateway.model.Ticket.PriorityInfo;
 import com.it.gateway.service.Ticket.PriorityService;
+import com.it.gateway.utils.EncodedApiResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,22 +30,58 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PriorityController {
 
+    private static final byte[] GET_ALL_MESSAGE = EncodedApiResponse.message("Get all priorities success");
+
     private final PriorityService priorityService;
 
-    @GetMapping
-    public ApiResponse<List<PriorityInfo>> getAllPriorities() {
+    @Value("${gateway.http.reference.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @GetMapping(params = "!ids")
+    public CompletableFuture<ResponseEntity<byte[]>> getAllPriorities(@RequestParam(defaultValue = "false") boolean active,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String requestId = UUID.randomUUID().toString();
         log.info("Get all priorities request initiated: {}", requestId);
 
-        CompletableFuture<List<PriorityInfo>> response = priorityService.getAllPriorities(requestId);
-
-        try {
-            List<PriorityInfo> priorities = response.get(60, TimeUnit.SECONDS);
-            return ApiResponse.success(requestId, priorities, "Get all priorities success");
-        }
-        catch (Exception e) {
-            log.error("Get all priorities error: {}", e.getMessage());
-            return ApiResponse.error(requestId, "500", e.getMessage());
+        // A revalidation of the current list is answered without loading it
+        String currentEtag = priorityService.getCurrentPrioritiesEtag(active);
+        if (EncodedApiResponse.matches(ifNoneMatch, currentEtag)) {
+            return CompletableFuture.completedFuture(EncodedApiResponse.notModified(currentEtag, cacheControl()));
         }
+
+        // The list is served from its cached JSON encoding; only the envelope is written per request
+        return priorityService.getAllPrioritiesEncoded(requestId, active)
+                .thenApply(priorities -> EncodedApiResponse.success(requestId, priorities, GET_ALL_MESSAGE, ifNoneMatch, cacheControl()));
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ApiResponse<List<PriorityInfo>>> getPrioritiesByIds(@RequestParam List<UUID> ids) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get priorities by ids request initiated: {} | ids: {}", requestId, ids.size());
+
+        return priorityService.getPrioritiesByIds(requestId, ids)
+                .thenApply(priorities -> ApiResponse.success(requestId, priorities, "Get priorities by ids success"));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ApiResponse<PriorityInfo>> getPriorityById(@PathVariable UUID id) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get priority by id request initiated: {} | id: {}", requestId, id);
+
+        return priorityService.getPriorityById(requestId, id)
+                .thenApply(priority -> ApiResponse.success(requestId, priority, "Get priority success"));
+    }
+
+    @GetMapping("/code/{code}")
+    public CompletableFuture<ApiResponse<PriorityInfo>> getPriorityByCode(@PathVariable String code) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get priority by code request initiated: {} | code: {}", requestId, code);
+
+        return priorityService.getPriorityByCode(requestId, code)
+                .thenApply(priority -> ApiResponse.success(requestId, priority, "Get priority success"));
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate().mustRevalidate();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,25 @@
 package com.it.gateway.controller.Ticket;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.it.gateway.model.General.ApiResponse;
 import com.it.gateway.model.Ticket.StatusInfo;
 import com.it.gateway.service.Ticket.StatusService;
+import com.it.gateway.utils.EncodedApiResponse;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,20 +31,58 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class StatusController {
 
+    private static final byte[] GET_ALL_MESSAGE = EncodedApiResponse.message("Get all statuses success");
+
     private final StatusService statusService;
 
-    @GetMapping
-    public ApiResponse<List<StatusInfo>> getAllStatuses() {
+    @Value("${gateway.http.reference.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @GetMapping(params = "!ids")
+    public CompletableFuture<ResponseEntity<byte[]>> getAllStatuses(@RequestParam(defaultValue = "false") boolean active,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String requestId = UUID.randomUUID().toString();
         log.info("Get all statuses request initiated: {}", requestId);
 
-        try {
-            List<StatusInfo> statuses = statusService.getAllStatuses(requestId).get(60, TimeUnit.SECONDS);
-            return ApiResponse.success(requestId, statuses, "Get all statuses success");
-        }
-        catch (Exception e) {
-            log.error("Get all statuses error: {}", e.getMessage());
-            return ApiResponse.error(requestId, "500", e.getMessage());
+        // A revalidation of the current list is answered without loading it
+        String currentEtag = statusService.getCurrentStatusesEtag(active);
+        if (EncodedApiResponse.matches(ifNoneMatch, currentEtag)) {
+            return CompletableFuture.completedFuture(EncodedApiResponse.notModified(currentEtag, cacheControl()));
         }
+
+        // The list is served from its cached JSON encoding; only the envelope is written per request
+        return statusService.getAllStatusesEncoded(requestId, active)
+                .thenApply(statuses -> EncodedApiResponse.success(requestId, statuses, GET_ALL_MESSAGE, ifNoneMatch, cacheControl()));
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ApiResponse<List<StatusInfo>>> getStatusesByIds(@RequestParam List<UUID> ids) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get statuses by ids request initiated: {} | ids: {}", requestId, ids.size());
+
+        return statusService.getStatusesByIds(requestId, ids)
+                .thenApply(statuses -> ApiResponse.success(requestId, statuses, "Get statuses by ids success"));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ApiResponse<StatusInfo>> getStatusById(@PathVariable UUID id) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get status by id request initiated: {} | id: {}", requestId, id);
+
+        return statusService.getStatusById(requestId, id)
+                .thenApply(status -> ApiResponse.success(requestId, status, "Get status success"));
+    }
+
+    @GetMapping("/code/{code}")
+    public CompletableFuture<ApiResponse<StatusInfo>> getStatusByCode(@PathVariable String code) {
+        String requestId = UUID.randomUUID().toString();
+        log.info("Get status by code request initiated: {} | code: {}", requestId, code);
+
+        return statusService.getStatusByCode(requestId, code)
+                .thenApply(status -> ApiResponse.success(requestId, status, "Get status success"));
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate().mustRevalidate();
     }
 }
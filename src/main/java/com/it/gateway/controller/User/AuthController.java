@@ -2,7 +2,6 @@ package com.it.gateway.controller.User;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,17 +26,12 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ApiResponse<LoginResponse> login(@RequestBody Login login) {
+    public CompletableFuture<ApiResponse<LoginResponse>> login(@RequestBody Login login) {
         String requestId = UUID.randomUUID().toString();
         log.info("Login  request initiated: {}", requestId);
-        CompletableFuture<LoginResponse> response = authService.login(login, requestId);
-
-        try {
-            LoginResponse loginResponse = response.get(60, TimeUnit.SECONDS);
-            return ApiResponse.success(requestId, loginResponse, "Login success");
-        } catch (Exception e) {
-           return ApiResponse.error(requestId, "500", e.getMessage());
-        }
+
+        return authService.login(login, requestId)
+                .thenApply(loginResponse -> ApiResponse.success(requestId, loginResponse, "Login success"));
     }
 
     @PostMapping("/refresh-token")
@@ -28,6 +28,11 @@ public class Constant {
 
     public static final String EVENT_GROUP = "helpdesk-gateway";
 
+    // Client budget for a request in milliseconds
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+    // Absolute request deadline in epoch milliseconds, sent with Kafka requests
+    public static final String DEADLINE_HEADER = "gateway_deadline";
+
     // USER SERVICE
     public static final String USER_EVENT_REQUEST = "user-event-request";
     public static final String USER_EVENT_RESPONSE = "user-event-response";
@@ -35,4 +40,5 @@ public class Constant {
     // TICKET SERVICE
     public static final String TICKET_EVENT_REQUEST = "ticket-event-request";
     public static final String TICKET_EVENT_RESPONSE = "ticket-event-response";
+    public static final String TICKET_EVENT_CHANGE = "ticket-event-change";
 }
@@ -0,0 +1,26 @@
+package com.it.gateway.enums;
+
+/**
+ * Wire formats for {@code KafkaMessage} values. The format of a record is named in
+ * its {@link #CONTENT_TYPE_HEADER}; records without the header are JSON.
+ */
+public enum KafkaCodec {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+
+    private final String contentType;
+
+    KafkaCodec(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static KafkaCodec fromContentType(String contentType) {
+        return SMILE.contentType.equals(contentType) ? SMILE : JSON;
+    }
+}
@@ -8,4 +8,12 @@ public class Operation {
     public static final String OPERATION_GET_ALL_CATEGORIES = "get-all-categories"; 
     public static final String OPERATION_GET_ALL_PRIORITIES = "get-all-priorities"; 
     public static final String OPERATION_GET_ALL_STATUSES = "get-all-statuses"; 
+
+    // TICKET SERVICE CHANGE EVENTS
+    public static final String CATEGORY_UPSERTED = "category-upserted";
+    public static final String CATEGORY_DELETED = "category-deleted";
+    public static final String PRIORITY_UPSERTED = "priority-upserted";
+    public static final String PRIORITY_DELETED = "priority-deleted";
+    public static final String STATUS_UPSERTED = "status-upserted";
+    public static final String STATUS_DELETED = "status-deleted";
 }
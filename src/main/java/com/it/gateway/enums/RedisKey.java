@@ -3,4 +3,7 @@ package com.it.gateway.enums;
 public class RedisKey {
     public static final String REFRESH_TOKEN_PREFIX = "refresh_token_";
     public static final String ACCESS_TOKEN_PREFIX = "access_token_";
+    // Revoked token ids scored by token expiry, and per-user "issued before" cutoffs
+    public static final String REVOKED_TOKEN_IDS = "revoked_token_ids";
+    public static final String REVOKED_USER_CUTOFFS = "revoked_user_cutoffs";
 }
@@ -8,13 +8,19 @@ public class ApiException extends RuntimeException {
     private final String errorMessage;
     private final int httpStatus;
     private final String requestId;
+    private final Integer retryAfterSeconds;
 
     public ApiException(String errorCode, String errorMessage, int httpStatus, String requestId) {
+        this(errorCode, errorMessage, httpStatus, requestId, null);
+    }
+
+    public ApiException(String errorCode, String errorMessage, int httpStatus, String requestId, Integer retryAfterSeconds) {
         super(errorMessage);
         this.errorCode = errorCode;
         this.errorMessage = errorMessage;
         this.httpStatus = httpStatus;
         this.requestId = requestId;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     public static class ErrorCode {
@@ -26,6 +32,9 @@ public class ApiException extends RuntimeException {
         public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
         public static final String BUSINESS_ERROR = "BUSINESS_ERROR";
         public static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
+        // Rejected by the gateway's own capacity limits (503); says nothing about the backend
+        public static final String GATEWAY_OVERLOADED = "GATEWAY_OVERLOADED";
+        public static final String GATEWAY_TIMEOUT = "GATEWAY_TIMEOUT";
         public static final String INVALID_OLD_PASSWORD = "INVALID_OLD_PASSWORD";
         public static final String BAD_REQUEST = "BAD_REQUEST";
         public static final String CONFLICT = "CONFLICT";
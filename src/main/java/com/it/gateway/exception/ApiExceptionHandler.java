@@ -0,0 +1,52 @@
+package com.it.gateway.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import com.it.gateway.model.General.ApiResponse;
+import com.it.gateway.utils.RequestContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maps failures of (async) controller results to an {@link ApiResponse} with the
+ * HTTP status carried by the exception. Anything not handled here or by Spring MVC
+ * falls through to {@link FallbackExceptionResolver}.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ApiResponse<Void>> handleApiException(ApiException e) {
+        int status = e.getHttpStatus();
+        // Client errors and load shedding are expected outcomes, not gateway faults
+        if (status < 500) {
+            log.debug("Request rejected - requestId: {} | errorCode: {} | error: {}",
+                    e.getRequestId(), e.getErrorCode(), e.getErrorMessage());
+        } else if (status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            log.warn("Request shed or timed out - requestId: {} | errorCode: {} | error: {}",
+                    e.getRequestId(), e.getErrorCode(), e.getErrorMessage());
+        } else {
+            log.error("Request failed - requestId: {} | errorCode: {} | error: {}",
+                    e.getRequestId(), e.getErrorCode(), e.getErrorMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (e.getRetryAfterSeconds() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+        return response.body(ApiResponse.error(e.getRequestId(), e.getErrorCode(), e.getErrorMessage()));
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAsyncTimeout(AsyncRequestTimeoutException e) {
+        String requestId = RequestContext.getCurrentRequestId();
+        log.warn("Async request timed out before a reply was received - requestId: {}", requestId);
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ApiResponse.error(requestId, ApiException.ErrorCode.GATEWAY_TIMEOUT, "Request timed out"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.it.gateway.exception;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.model.General.ApiResponse;
+import com.it.gateway.utils.RequestContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Last-resort mapping of unexpected exceptions to a 500 {@link ApiResponse}, run after
+ * {@link ApiExceptionHandler} and Spring MVC's own resolvers.
+ *
+ * It is a resolver rather than an {@code @ExceptionHandler(Exception.class)} so that
+ * security exceptions can stay unresolved and reach Spring Security's
+ * {@code ExceptionTranslationFilter}, which answers 401/403. The exception text is
+ * logged, never sent to the client.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FallbackExceptionResolver implements HandlerExceptionResolver, Ordered {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AccessDeniedException || cause instanceof AuthenticationException) {
+                return null;
+            }
+        }
+        if (response.isCommitted()) {
+            log.error("Request failed after the response was committed: {}", ex.getMessage(), ex);
+            return null;
+        }
+
+        String requestId = RequestContext.getCurrentRequestId();
+        log.error("Request failed with unexpected error - requestId: {} | error: {}", requestId, ex.getMessage(), ex);
+        try {
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error(requestId, ApiException.ErrorCode.INTERNAL_ERROR, "Internal server error"));
+        } catch (IOException e) {
+            log.warn("Failed to write error response - requestId: {} | error: {}", requestId, e.getMessage());
+        }
+        return new ModelAndView();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -25,6 +25,8 @@ public class ApiResponse<T> {
     private String errorMessage;
     private Object errorDetails;
     private LocalDateTime timestamp;
+    // How old cached data is, in milliseconds; absent when the data was not served from a cache
+    private Long dataAgeMs;
 
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
@@ -54,6 +56,12 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> success(String requestId, CachedValue<T> cached, String message) {
+        ApiResponse<T> response = success(requestId, cached.getValue(), message);
+        response.setDataAgeMs(cached.ageMillis(System.currentTimeMillis()));
+        return response;
+    }
+
     public static <T> ApiResponse<T> error(String errorCode, String errorMessage, Object errorDetails) {
         return ApiResponse.<T>builder()
                 .status(ResponseStatus.ERROR.getValue())
@@ -0,0 +1,24 @@
+package com.it.gateway.model.General;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cached value together with the time (epoch milliseconds) it was loaded from the backend.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue<T> {
+    private T value;
+    private long loadedAt;
+
+    public static <T> CachedValue<T> loadedNow(T value) {
+        return new CachedValue<>(value, System.currentTimeMillis());
+    }
+
+    public long ageMillis(long now) {
+        return Math.max(0, now - loadedAt);
+    }
+}
@@ -18,6 +18,8 @@ public class KafkaMessage {
     private String status;
     private Object payload;
     private LocalDateTime createdAt;
+    private Long deadline;
+    private Long version;
     private String errorCode;
     private String errorMessage;
     private Object errorDetails;
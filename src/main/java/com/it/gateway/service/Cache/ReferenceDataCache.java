@@ -0,0 +1,272 @@
+package com.it.gateway.service.Cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+import com.it.gateway.model.General.CachedValue;
+import com.it.gateway.utils.BoundedTtlCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for reference lists (categories, priorities, statuses).
+ *
+ * L1 is a bounded in-process map; L2 is the shared Redis {@code apiResponse} cache.
+ * A miss in both loads from the backend and fills both tiers. When a load returns a
+ * list that differs from the shared L2 copy, the loading node publishes the key on a
+ * pub/sub channel so every other node drops its L1 copy and picks up the new one from
+ * L2. Only the first node to store a change sees the difference, so each change is
+ * published once rather than by every node. Redis errors are logged and treated as a
+ * miss, so reads keep working (from L1 or the backend) while Redis is down; a missed
+ * invalidation is then bounded by each node's own {@code refresh-after} reload.
+ *
+ * Entries are stale-while-revalidate: once older than {@code refresh-after} a single
+ * background reload is started while callers keep getting the current value. Past
+ * {@code max-stale} callers wait for the reload, but if the backend is unavailable
+ * (timeout, publish failure or open circuit) the stale value is still served for up to
+ * {@code stale-if-error}. Callers see the data age through {@link CachedValue}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+    private static final String CACHE_NAME = "apiResponse";
+    private static final String KEY_PREFIX = "reference:";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.cache.reference.l1-max-size:256}")
+    private int l1MaxSize;
+
+    @Value("${gateway.cache.reference.refresh-after-ms:20000}")
+    private long refreshAfterMs;
+
+    @Value("${gateway.cache.reference.max-stale-ms:60000}")
+    private long maxStaleMs;
+
+    @Value("${gateway.cache.reference.stale-if-error-ms:300000}")
+    private long staleIfErrorMs;
+
+    @Value("${gateway.cache.reference.invalidation-channel:gateway:cache:invalidate}")
+    private String invalidationChannel;
+
+    // Lets a node skip its own invalidation messages
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private BoundedTtlCache<String, CachedValue<?>> l1;
+    private Cache l2;
+    private Counter l1Hits;
+    private Counter l2Hits;
+    private Counter misses;
+    private Counter refreshes;
+    private Counter staleServed;
+
+    @PostConstruct
+    void init() {
+        // L1 keeps entries as long as they may be served while the backend is down; while it
+        // is up every node reloads after refresh-after, so this does not delay changes
+        l1 = new BoundedTtlCache<>(l1MaxSize, Duration.ofMillis(Math.max(maxStaleMs, staleIfErrorMs)));
+        l2 = cacheManager.getCache(CACHE_NAME);
+        l1Hits = requestCounter("l1");
+        l2Hits = requestCounter("l2");
+        misses = requestCounter("miss");
+        refreshes = Counter.builder("gateway.cache.reference.refreshes")
+                .description("Background refresh-ahead reloads of reference data")
+                .register(meterRegistry);
+        staleServed = Counter.builder("gateway.cache.reference.stale")
+                .description("Stale reference data served because the backend was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.reference.size", l1, BoundedTtlCache::size)
+                .description("Entries in the in-process reference data cache")
+                .register(meterRegistry);
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(invalidationChannel));
+    }
+
+    /**
+     * Return the cached value for {@code key}, loading it with {@code loader} when there is
+     * none or it is too stale to serve.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<CachedValue<T>> get(String key, Supplier<CompletableFuture<T>> loader) {
+        CachedValue<T> cached = (CachedValue<T>) l1.get(key);
+        if (cached != null) {
+            l1Hits.increment();
+        } else {
+            cached = readL2(key);
+            if (cached != null) {
+                l2Hits.increment();
+                l1.put(key, cached);
+            }
+        }
+
+        if (cached == null) {
+            misses.increment();
+            return load(key, loader);
+        }
+
+        long age = cached.ageMillis(System.currentTimeMillis());
+        if (age < refreshAfterMs) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (age < maxStaleMs) {
+            refreshInBackground(key, loader);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CachedValue<T> stale = cached;
+        return load(key, loader).exceptionallyCompose(error -> {
+            if (isBackendUnavailable(error) && stale.ageMillis(System.currentTimeMillis()) < staleIfErrorMs) {
+                staleServed.increment();
+                log.warn("Serving stale '{}' - age: {} ms | error: {}", key,
+                        stale.ageMillis(System.currentTimeMillis()), error.getMessage());
+                return CompletableFuture.completedFuture(stale);
+            }
+            return CompletableFuture.failedFuture(error);
+        });
+    }
+
+    /**
+     * The value {@link #get} would answer from this node's L1 without waiting for a load,
+     * or null. Never loads or refreshes; an invalidated key has no value here.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedValue<T> peek(String key) {
+        CachedValue<T> cached = (CachedValue<T>) l1.get(key);
+        return cached != null && cached.ageMillis(System.currentTimeMillis()) < maxStaleMs ? cached : null;
+    }
+
+    public void put(String key, CachedValue<?> value) {
+        if (value == null || value.getValue() == null) {
+            return;
+        }
+        l1.put(key, value);
+        try {
+            l2.put(KEY_PREFIX + key, value);
+        } catch (RuntimeException e) {
+            log.warn("Reference cache L2 write failed - key: {} | error: {}", key, e.getMessage());
+        }
+    }
+
+    private <T> CompletableFuture<CachedValue<T>> load(String key, Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        return loaded.thenApply(value -> {
+            CachedValue<T> cached = CachedValue.loadedNow(value);
+            CachedValue<?> previous = readL2(key);
+            if (previous == null) {
+                previous = l1.get(key);
+            }
+            put(key, cached);
+            if (previous != null && !previous.getValue().equals(value)) {
+                publishInvalidation(key);
+            }
+            return cached;
+        });
+    }
+
+    private <T> void refreshInBackground(String key, Supplier<CompletableFuture<T>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshes.increment();
+        log.debug("Refreshing '{}' ahead of expiry", key);
+        load(key, loader).whenComplete((value, error) -> {
+            refreshing.remove(key);
+            if (error != null) {
+                log.warn("Background refresh of '{}' failed - error: {}", key, error.getMessage());
+            }
+        });
+    }
+
+    private boolean isBackendUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof ApiException apiException)) {
+            return false;
+        }
+        String code = apiException.getErrorCode();
+        return ApiException.ErrorCode.SERVICE_UNAVAILABLE.equals(code)
+                || ApiException.ErrorCode.GATEWAY_OVERLOADED.equals(code)
+                || ApiException.ErrorCode.GATEWAY_TIMEOUT.equals(code);
+    }
+
+    /**
+     * Drop {@code key} from this node's L1 cache and from Redis, without telling other
+     * nodes. For changes every node observes itself, such as change events.
+     */
+    public void evict(String key) {
+        l1.remove(key);
+        try {
+            l2.evict(KEY_PREFIX + key);
+        } catch (RuntimeException e) {
+            log.warn("Reference cache L2 evict failed - key: {} | error: {}", key, e.getMessage());
+        }
+    }
+
+    private void publishInvalidation(String key) {
+        log.info("Reference list '{}' changed, invalidating peers", key);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + "|" + key);
+        } catch (RuntimeException e) {
+            log.warn("Reference cache invalidation failed - key: {} | error: {}", key, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CachedValue<T> readL2(String key) {
+        try {
+            Cache.ValueWrapper wrapper = l2.get(KEY_PREFIX + key);
+            return wrapper != null && wrapper.get() instanceof CachedValue<?> value ? (CachedValue<T>) value : null;
+        } catch (RuntimeException e) {
+            log.warn("Reference cache L2 read failed - key: {} | error: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.startsWith(nodeId + "|")) {
+            return;
+        }
+        String key = body.substring(separator + 1);
+        l1.remove(key);
+        log.debug("Reference cache invalidated by peer - key: {}", key);
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("gateway.cache.reference.requests")
+                .description("Reference data cache lookups by the tier that answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,190 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Learns how many concurrent requests each downstream topic can take from the round
+ * trip latency of its replies.
+ *
+ * Per topic it tracks a short-term RTT (an average over about {@code short-window}
+ * replies) and a slowly moving long-term RTT baseline. While the short-term RTT stays
+ * within {@code tolerance} of the baseline the limit grows by a queue allowance of
+ * sqrt(limit); when latency inflates the limit is scaled down by the gradient
+ * baseline/short (never below half), and a timed-out reply cuts it multiplicatively.
+ * Requests above the current limit are rejected with 503.
+ *
+ * The RTT is measured from the moment the call reports that the send was issued, so
+ * time spent waiting for admission is not mistaken for downstream latency; calls that
+ * never reach the send produce no sample.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimiter {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.limiter.initial-limit:100}")
+    private int initialLimit;
+
+    @Value("${gateway.limiter.min-limit:10}")
+    private int minLimit;
+
+    @Value("${gateway.limiter.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${gateway.limiter.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${gateway.limiter.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${gateway.limiter.short-window:10}")
+    private int shortWindow;
+
+    @Value("${gateway.limiter.long-window:600}")
+    private int longWindow;
+
+    @Value("${gateway.limiter.timeout-backoff-ratio:0.9}")
+    private double timeoutBackoffRatio;
+
+    @Value("${gateway.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final ConcurrentMap<String, TopicLimit> topicLimits = new ConcurrentHashMap<>();
+
+    /**
+     * Run the call under the topic's limit. The call must run the given callback
+     * right before it issues the send.
+     */
+    public <T> CompletableFuture<T> execute(String topic, String requestId,
+                                            Function<Runnable, CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.apply(() -> { });
+        }
+
+        TopicLimit topicLimit = topicLimits.computeIfAbsent(topic, this::createLimit);
+        int inFlight = topicLimit.inFlight.incrementAndGet();
+        if (inFlight > (int) topicLimit.limit) {
+            topicLimit.inFlight.decrementAndGet();
+            topicLimit.rejected.increment();
+            log.warn("Concurrency limit reached for '{}' - requestId: {} | limit: {}", topic, requestId, (int) topicLimit.limit);
+            return CompletableFuture.failedFuture(new ApiException(ApiException.ErrorCode.GATEWAY_OVERLOADED,
+                    "Downstream '" + topic + "' is at its concurrency limit",
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), requestId, retryAfterSeconds));
+        }
+
+        AtomicLong sentNanos = new AtomicLong();
+        CompletableFuture<T> result;
+        try {
+            result = call.apply(() -> sentNanos.set(System.nanoTime()));
+        } catch (RuntimeException e) {
+            topicLimit.inFlight.decrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            topicLimit.inFlight.decrementAndGet();
+            long startNanos = sentNanos.get();
+            if (startNanos == 0) {
+                return;
+            }
+            if (error == null) {
+                topicLimit.onSample(System.nanoTime() - startNanos, inFlight);
+            } else if (isTimeout(error)) {
+                topicLimit.onDrop();
+            }
+        });
+        return result;
+    }
+
+    private TopicLimit createLimit(String topic) {
+        TopicLimit topicLimit = new TopicLimit(Counter.builder("gateway.limiter.rejected")
+                .description("Kafka requests rejected by the adaptive concurrency limit")
+                .tag("topic", topic)
+                .register(meterRegistry));
+        Gauge.builder("gateway.limiter.limit", topicLimit, l -> l.limit)
+                .description("Current adaptive concurrency limit")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        Gauge.builder("gateway.limiter.in.flight", topicLimit.inFlight, AtomicInteger::get)
+                .description("Kafka requests in flight to the topic")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        Gauge.builder("gateway.limiter.rtt.baseline", topicLimit, l -> l.longRttNanos / 1_000_000.0)
+                .description("Long-term reply RTT baseline in milliseconds")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        return topicLimit;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                return ApiException.ErrorCode.GATEWAY_TIMEOUT.equals(apiException.getErrorCode());
+            }
+        }
+        return false;
+    }
+
+    private final class TopicLimit {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+        private volatile double limit = initialLimit;
+        private double shortRttNanos;
+        private double longRttNanos;
+
+        private TopicLimit(Counter rejected) {
+            this.rejected = rejected;
+        }
+
+        private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) / shortWindow;
+            longRttNanos += (rttNanos - longRttNanos) / longWindow;
+            // Let the baseline recover quickly after a period of high latency
+            if (longRttNanos > 2.0 * shortRttNanos) {
+                longRttNanos *= 0.95;
+            }
+
+            // Not enough load to learn anything about the limit
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+        }
+
+        private synchronized void onDrop() {
+            limit = clamp(limit * timeoutBackoffRatio);
+        }
+
+        private double clamp(double value) {
+            return Math.max(minLimit, Math.min(maxLimit, value));
+        }
+    }
+}
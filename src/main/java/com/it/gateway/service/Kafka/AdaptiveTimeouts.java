@@ -0,0 +1,148 @@
+package com.it.gateway.service.Kafka;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Derives each operation's reply timeout from its recent latency.
+ *
+ * Reply latency is recorded in a rolling histogram per operation; the timeout is the
+ * configured percentile (p99.9 by default) times a multiplier, clamped between a floor
+ * and the operation's ceiling. Until enough replies have been seen the ceiling is used.
+ * Timed-out requests are recorded at their timeout so a slowing backend pushes the
+ * timeout up instead of being cut off at a stale value.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveTimeouts {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.timeout.adaptive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.timeout.adaptive.percentile:0.999}")
+    private double percentile;
+
+    @Value("${gateway.timeout.adaptive.multiplier:3.0}")
+    private double multiplier;
+
+    @Value("${gateway.timeout.adaptive.floor-ms:200}")
+    private long floorMs;
+
+    @Value("${gateway.timeout.adaptive.min-samples:200}")
+    private long minSamples;
+
+    @Value("${gateway.timeout.adaptive.window-ms:300000}")
+    private long windowMs;
+
+    @Value("${gateway.timeout.adaptive.refresh-ms:1000}")
+    private long refreshMs;
+
+    private final ConcurrentMap<String, OperationLatency> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Timeout for the next request of {@code operation}, never above {@code ceiling}.
+     */
+    public Duration timeout(String operation, Duration ceiling) {
+        if (!enabled) {
+            return ceiling;
+        }
+        OperationLatency latency = latencies.computeIfAbsent(operation, this::createLatency);
+        long timeoutMs = latency.timeoutMs(ceiling.toMillis());
+        return Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Record how a request ended. Local rejections and send failures say nothing about
+     * reply latency and are ignored.
+     */
+    public void record(String operation, long elapsedNanos, Throwable error) {
+        if (!enabled || isNotAReply(error)) {
+            return;
+        }
+        latencies.computeIfAbsent(operation, this::createLatency)
+                .timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean isNotAReply(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return cause instanceof ApiException apiException
+                && (ApiException.ErrorCode.SERVICE_UNAVAILABLE.equals(apiException.getErrorCode())
+                        || ApiException.ErrorCode.GATEWAY_OVERLOADED.equals(apiException.getErrorCode()));
+    }
+
+    private OperationLatency createLatency(String operation) {
+        Timer timer = Timer.builder("gateway.kafka.reply.latency")
+                .description("Kafka request/reply round trip latency")
+                .tag("operation", operation)
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMillis(windowMs))
+                .distributionStatisticBufferLength(5)
+                .register(meterRegistry);
+        OperationLatency latency = new OperationLatency(operation, timer);
+        Gauge.builder("gateway.kafka.reply.timeout", latency, l -> l.currentTimeoutMs)
+                .description("Current adaptive reply timeout")
+                .tag("operation", operation)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return latency;
+    }
+
+    private final class OperationLatency {
+        private final String operation;
+        private final Timer timer;
+        private volatile long currentTimeoutMs;
+        private volatile long refreshedAt;
+
+        private OperationLatency(String operation, Timer timer) {
+            this.operation = operation;
+            this.timer = timer;
+        }
+
+        private long timeoutMs(long ceilingMs) {
+            long now = System.currentTimeMillis();
+            if (currentTimeoutMs == 0 || now - refreshedAt >= refreshMs) {
+                refreshedAt = now;
+                long computed = compute(ceilingMs);
+                if (computed != currentTimeoutMs) {
+                    log.debug("Adaptive timeout for '{}' is now {} ms", operation, computed);
+                }
+                currentTimeoutMs = computed;
+            }
+            return Math.min(currentTimeoutMs, ceilingMs);
+        }
+
+        private long compute(long ceilingMs) {
+            if (timer.count() < minSamples) {
+                return ceilingMs;
+            }
+            double percentileMs = 0;
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                percentileMs = value.value(TimeUnit.MILLISECONDS);
+            }
+            // An empty window (no recent traffic) carries no information
+            if (percentileMs <= 0) {
+                return ceilingMs;
+            }
+            long timeoutMs = (long) Math.ceil(percentileMs * multiplier);
+            return Math.max(Math.min(floorMs, ceilingMs), Math.min(timeoutMs, ceilingMs));
+        }
+    }
+}
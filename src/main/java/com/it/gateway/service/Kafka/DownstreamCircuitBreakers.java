@@ -0,0 +1,245 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One circuit breaker per request topic.
+ *
+ * Closed: outcomes of the last {@code window-size} calls are kept in a ring buffer; once
+ * {@code minimum-calls} are recorded, a failure rate or timeout rate above its threshold
+ * opens the circuit. Open: calls fail immediately with 503 until {@code open-duration-ms}
+ * has passed. Half-open: up to {@code probe-calls} probe requests go through; if all
+ * succeed the circuit closes, any failure opens it again.
+ *
+ * Only downstream failures count: reply timeouts and failures to publish the request.
+ * Error replies from a healthy backend (e.g. bad credentials) are successes here, and
+ * the gateway's own capacity rejections ({@code GATEWAY_OVERLOADED}) and unexpected
+ * local errors are not recorded at all.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DownstreamCircuitBreakers {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.circuit-breaker.window-size:50}")
+    private int windowSize;
+
+    @Value("${gateway.circuit-breaker.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${gateway.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${gateway.circuit-breaker.timeout-rate-threshold:0.3}")
+    private double timeoutRateThreshold;
+
+    @Value("${gateway.circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    @Value("${gateway.circuit-breaker.probe-calls:3}")
+    private int probeCalls;
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Outcome { SUCCESS, FAILURE, TIMEOUT, IGNORED }
+
+    private enum Permit { REJECTED, CALL, PROBE }
+
+    public <T> CompletableFuture<T> execute(String topic, String requestId, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CircuitBreaker breaker = breakers.computeIfAbsent(topic, this::createBreaker);
+        Permit permit = breaker.tryAcquire();
+        if (permit == Permit.REJECTED) {
+            breaker.rejected.increment();
+            log.warn("Circuit open for '{}' - requestId: {}", topic, requestId);
+            return CompletableFuture.failedFuture(new ApiException(ApiException.ErrorCode.SERVICE_UNAVAILABLE,
+                    "Downstream '" + topic + "' is unavailable",
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), requestId, breaker.retryAfterSeconds()));
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            breaker.onResult(permit, outcomeOf(e));
+            return CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> breaker.onResult(permit, outcomeOf(error)));
+        return result;
+    }
+
+    public State getState(String topic) {
+        CircuitBreaker breaker = breakers.get(topic);
+        return breaker == null ? State.CLOSED : breaker.state;
+    }
+
+    private CircuitBreaker createBreaker(String topic) {
+        CircuitBreaker breaker = new CircuitBreaker(topic, Counter.builder("gateway.circuit.rejected")
+                .description("Kafka requests rejected by an open circuit")
+                .tag("topic", topic)
+                .register(meterRegistry));
+        Gauge.builder("gateway.circuit.state", breaker, b -> b.state.ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    private static Outcome outcomeOf(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                String code = apiException.getErrorCode();
+                if (ApiException.ErrorCode.GATEWAY_TIMEOUT.equals(code)) {
+                    return Outcome.TIMEOUT;
+                }
+                if (ApiException.ErrorCode.SERVICE_UNAVAILABLE.equals(code)) {
+                    return Outcome.FAILURE;
+                }
+                return ApiException.ErrorCode.GATEWAY_OVERLOADED.equals(code) ? Outcome.IGNORED : Outcome.SUCCESS;
+            }
+        }
+        return Outcome.IGNORED;
+    }
+
+    private final class CircuitBreaker {
+        private final String topic;
+        private final Counter rejected;
+        private final Outcome[] window = new Outcome[windowSize];
+        private volatile State state = State.CLOSED;
+        private int next;
+        private int recorded;
+        private int failures;
+        private int timeouts;
+        private long openedAtNanos;
+        private int probesInFlight;
+        private int probeSuccesses;
+
+        private CircuitBreaker(String topic, Counter rejected) {
+            this.topic = topic;
+            this.rejected = rejected;
+        }
+
+        private synchronized Permit tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openDurationMs)) {
+                    return Permit.REJECTED;
+                }
+                transition(State.HALF_OPEN);
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= probeCalls) {
+                    return Permit.REJECTED;
+                }
+                probesInFlight++;
+                return Permit.PROBE;
+            }
+            return Permit.CALL;
+        }
+
+        private synchronized void onResult(Permit permit, Outcome outcome) {
+            if (permit == Permit.PROBE) {
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                probesInFlight--;
+                if (outcome == Outcome.IGNORED) {
+                    return;
+                }
+                if (outcome != Outcome.SUCCESS) {
+                    open();
+                } else if (++probeSuccesses >= probeCalls) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+
+            // Late results from calls admitted before the circuit opened are ignored
+            if (state != State.CLOSED || outcome == Outcome.IGNORED) {
+                return;
+            }
+            record(outcome);
+            if (recorded >= minimumCalls
+                    && (failures >= failureRateThreshold * recorded || timeouts >= timeoutRateThreshold * recorded)) {
+                open();
+            }
+        }
+
+        private void record(Outcome outcome) {
+            Outcome evicted = window[next];
+            if (evicted != null) {
+                recorded--;
+                countOutcome(evicted, -1);
+            }
+            window[next] = outcome;
+            next = (next + 1) % window.length;
+            recorded++;
+            countOutcome(outcome, 1);
+        }
+
+        private void countOutcome(Outcome outcome, int delta) {
+            if (outcome == Outcome.FAILURE) {
+                failures += delta;
+            } else if (outcome == Outcome.TIMEOUT) {
+                timeouts += delta;
+            }
+        }
+
+        private void open() {
+            openedAtNanos = System.nanoTime();
+            resetWindow();
+            transition(State.OPEN);
+        }
+
+        private void resetWindow() {
+            Arrays.fill(window, null);
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            timeouts = 0;
+        }
+
+        private void transition(State newState) {
+            if (state != newState) {
+                log.warn("Circuit for '{}' changed {} -> {}", topic, state, newState);
+                state = newState;
+            }
+        }
+
+        private int retryAfterSeconds() {
+            long remainingMs = openDurationMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAtNanos);
+            return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999));
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.it.gateway.service.Kafka;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.logging.LogFactory;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Component;
 
-import com.it.gateway.enums.Constant;
+import com.it.gateway.config.KafkaReplyRouting;
 import com.it.gateway.model.Kafka.KafkaMessage;
-import com.it.gateway.service.User.AuthService;
-import com.it.gateway.service.Ticket.CategoryService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,18 +23,80 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaMessageHandlerUser {
-    private final AuthService authService;
-    private final CategoryService categoryService;
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(LogFactory.getLog(KafkaMessageHandlerUser.class));
+
+    private final KafkaReplyDispatcher replyDispatcher;
+    private final KafkaReplyRouting replyRouting;
+    private final PendingRequestRegistry pendingRequests;
+
+    @KafkaListener(topics = "#{@kafkaReplyRouting.userReplyTopic}", groupId = "#{@kafkaReplyRouting.groupId}",
+            properties = "auto.offset.reset=#{@kafkaReplyRouting.replyOffsetReset}",
+            concurrency = "${gateway.kafka.user-reply.concurrency:1}", containerFactory = "kafkaListenerContainerFactory")
+    private void listenUserEvent(List<ConsumerRecord<String, KafkaMessage>> records) {
+        log.info("Received user event responses: {}", records.size());
+        dispatchAll(records);
+    }
+
+    @KafkaListener(topics = "#{@kafkaReplyRouting.ticketReplyTopic}", groupId = "#{@kafkaReplyRouting.groupId}",
+            properties = "auto.offset.reset=#{@kafkaReplyRouting.replyOffsetReset}",
+            concurrency = "${gateway.kafka.ticket-reply.concurrency:1}", containerFactory = "kafkaListenerContainerFactory")
+    private void listenTicketEvent(List<ConsumerRecord<String, KafkaMessage>> records) {
+        log.info("Received ticket event responses: {}", records.size());
+        dispatchAll(records);
+    }
+
+    private void dispatchAll(List<ConsumerRecord<String, KafkaMessage>> records) {
+        for (ConsumerRecord<String, KafkaMessage> record : records) {
+            if (!isOwnReply(record)) {
+                continue;
+            }
+            KafkaMessage message = record.value();
+            // Records that failed deserialization arrive as null values
+            if (message == null) {
+                failUndecodable(record);
+                continue;
+            }
+            try {
+                replyDispatcher.dispatch(message);
+            } catch (Exception e) {
+                log.error("Error dispatching reply - messageId: {} | error: {}", message.getMessageId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * In shared routing every node reads every reply; skip those addressed to another
+     * instance or to a request this node does not hold, without counting them as unmatched.
+     */
+    private boolean isOwnReply(ConsumerRecord<String, KafkaMessage> record) {
+        if (replyRouting.isForAnotherInstance(record)) {
+            return false;
+        }
+        if (replyRouting.isPerInstance()) {
+            return true;
+        }
+        String requestId = record.value() != null ? record.value().getMessageId() : requestIdOf(record);
+        return pendingRequests.isPending(requestId);
+    }
 
-    @KafkaListener(topics = Constant.USER_EVENT_RESPONSE, groupId = Constant.EVENT_GROUP, containerFactory = "kafkaListenerContainerFactory")
-    private void listenUserEvent(KafkaMessage message) {
-        log.info("Received user event response: {}", message.getMessageId());
-        authService.handleLoginResponse(message);
+    private void failUndecodable(ConsumerRecord<String, KafkaMessage> record) {
+        DeserializationException error = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        String reason = error != null ? error.getMessage() : "empty reply";
+        String requestId = requestIdOf(record);
+        log.error("Undecodable reply - topic: {} | offset: {} | requestId: {} | error: {}",
+                record.topic(), record.offset(), requestId, reason);
+        if (requestId != null) {
+            replyDispatcher.fail(requestId, reason);
+        }
     }
 
-    @KafkaListener(topics = Constant.TICKET_EVENT_RESPONSE, groupId = Constant.EVENT_GROUP, containerFactory = "kafkaListenerContainerFactory")
-    private void listenTicketEvent(KafkaMessage message) {
-        log.info("Received ticket event response: {}", message.getMessageId());
-        categoryService.handleCategoryResponse(message);
+    private String requestIdOf(ConsumerRecord<String, KafkaMessage> record) {
+        Header correlation = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (correlation != null && correlation.value() != null) {
+            return new String(correlation.value(), StandardCharsets.UTF_8);
+        }
+        // Requests are keyed by requestId and backends reply with the same key
+        return record.key();
     }
 }
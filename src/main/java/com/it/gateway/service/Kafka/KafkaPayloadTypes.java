@@ -0,0 +1,27 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * Payload type of each Kafka operation, used to decode {@code KafkaMessage.payload}
+ * straight into its target type while the message is read off the wire.
+ */
+@Component
+public class KafkaPayloadTypes {
+    private final ConcurrentMap<String, JavaType> payloadTypes = new ConcurrentHashMap<>();
+
+    public void register(String operationType, TypeReference<?> payloadType) {
+        payloadTypes.put(operationType, TypeFactory.defaultInstance().constructType(payloadType));
+    }
+
+    public JavaType get(String operationType) {
+        return operationType == null ? null : payloadTypes.get(operationType);
+    }
+}
@@ -0,0 +1,85 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.it.gateway.exception.ApiException;
+import com.it.gateway.model.Kafka.KafkaMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes Kafka replies to the handler registered for their {@code operationType}.
+ * Services register their reply handlers and payload types on startup.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KafkaReplyDispatcher {
+    private final PendingRequestRegistry pendingRequests;
+    private final KafkaPayloadTypes payloadTypes;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Consumer<KafkaMessage>> handlers = new ConcurrentHashMap<>();
+    private Counter lateCounter;
+
+    @PostConstruct
+    void init() {
+        lateCounter = Counter.builder("gateway.kafka.replies.late")
+                .description("Kafka replies dropped because they arrived after the request deadline")
+                .register(meterRegistry);
+    }
+
+    public void register(String operationType, TypeReference<?> payloadType, Consumer<KafkaMessage> handler) {
+        if (handlers.putIfAbsent(operationType, handler) != null) {
+            throw new IllegalStateException("Reply handler already registered for operation: " + operationType);
+        }
+        payloadTypes.register(operationType, payloadType);
+        log.info("Registered reply handler for operation: {}", operationType);
+    }
+
+    public void dispatch(KafkaMessage message) {
+        // The local deadline has passed; expire the request instead of handing the reply on
+        if (pendingRequests.expireIfPastDeadline(message.getMessageId())) {
+            lateCounter.increment();
+            log.debug("Dropping late reply - operation: {} | messageId: {}", message.getOperationType(), message.getMessageId());
+            return;
+        }
+
+        Consumer<KafkaMessage> handler = handlers.get(message.getOperationType());
+        if (handler != null) {
+            handler.accept(message);
+            return;
+        }
+
+        log.warn("No reply handler for operation: {} | messageId: {}", message.getOperationType(), message.getMessageId());
+        CompletableFuture<Object> future = pendingRequests.take(message.getMessageId());
+        if (future != null) {
+            future.completeExceptionally(new ApiException(ApiException.ErrorCode.INTERNAL_ERROR,
+                    "Unsupported reply operation: " + message.getOperationType(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), message.getMessageId()));
+        }
+    }
+
+    /**
+     * Fail the request whose reply could not be decoded, instead of leaving the
+     * caller waiting for the deadline.
+     */
+    public void fail(String requestId, String reason) {
+        CompletableFuture<Object> future = pendingRequests.take(requestId);
+        if (future != null) {
+            future.completeExceptionally(new ApiException(ApiException.ErrorCode.INTERNAL_ERROR,
+                    "Invalid reply: " + reason, HttpStatus.INTERNAL_SERVER_ERROR.value(), requestId));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.it.gateway.service.Kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import com.it.gateway.config.KafkaReplyRouting;
+import com.it.gateway.enums.Constant;
+import com.it.gateway.exception.ApiException;
+import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.utils.KafkaMessageBuilder;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends a request to a backend topic and returns the future that the matching reply
+ * completes. Registration, reply routing headers and send errors are handled here so
+ * every request/reply path behaves the same.
+ *
+ * The producer acknowledgement is tied to the pending future: a rejected send fails
+ * the caller immediately, and transient errors are retried with backoff while the
+ * request deadline allows.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class KafkaRequestClient {
+    private final PendingRequestRegistry pendingRequests;
+    private final KafkaReplyRouting replyRouting;
+    private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
+    private final RequestAdmission requestAdmission;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DownstreamCircuitBreakers circuitBreakers;
+    private final RequestDeadlines requestDeadlines;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+
+    @Value("${gateway.kafka.send.max-attempts:3}")
+    private int maxSendAttempts;
+
+    @Value("${gateway.kafka.send.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    public <T> CompletableFuture<T> request(String topic, String requestId, String operation, Object payload) {
+        // Local rejections from the limiter and admission budget never reach the circuit breaker
+        return concurrencyLimiter.execute(topic, requestId,
+            sendIssued -> requestAdmission.execute(operation, requestId,
+                () -> circuitBreakers.execute(topic, requestId, () -> {
+                    sendIssued.run();
+                    return send(topic, requestId, operation, payload);
+                })));
+    }
+
+    /**
+     * Bound the calling client's wait by its {@code X-Request-Timeout} header. Apply it to
+     * the future handed to the HTTP caller, never inside a coalesced or cached load.
+     */
+    public <T> CompletableFuture<T> withClientBudget(CompletableFuture<T> future, String operation, String requestId) {
+        return requestDeadlines.withClientBudget(future, operation, requestId);
+    }
+
+    private <T> CompletableFuture<T> send(String topic, String requestId, String operation, Object payload) {
+        Duration timeout = requestDeadlines.operationTimeout(operation);
+        CompletableFuture<T> future;
+        try {
+            future = pendingRequests.register(requestId, operation, timeout);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long startNanos = System.nanoTime();
+        future.whenComplete((result, error) ->
+            adaptiveTimeouts.record(operation, System.nanoTime() - startNanos, error));
+
+        KafkaMessage kafkaMessage = KafkaMessageBuilder.buildKafkaMessage(
+            requestId,
+            operation,
+            Constant.ResponseStatus.PROCESSING.getValue(),
+            payload,
+            Instant.now().plus(timeout)
+        );
+        // Headers become read-only once sent, so each attempt gets a fresh record
+        Supplier<ProducerRecord<String, KafkaMessage>> record =
+            () -> replyRouting.requestRecord(topic, requestId, kafkaMessage);
+
+        send(record, future, operation, requestId, 1, System.nanoTime() + timeout.toNanos());
+        return future;
+    }
+
+    private void send(Supplier<ProducerRecord<String, KafkaMessage>> record, CompletableFuture<?> future,
+                      String operation, String requestId, int attempt, long deadlineNanos) {
+        CompletableFuture<SendResult<String, KafkaMessage>> sendResult;
+        try {
+            sendResult = kafkaTemplate.send(record.get());
+        } catch (Exception e) {
+            sendResult = CompletableFuture.failedFuture(e);
+        }
+
+        sendResult.whenComplete((result, error) -> {
+            if (error == null || future.isDone()) {
+                return;
+            }
+
+            long backoffMs = retryBackoffMs * attempt;
+            boolean withinDeadline = deadlineNanos - System.nanoTime() > TimeUnit.MILLISECONDS.toNanos(backoffMs);
+            if (isTransient(error) && attempt < maxSendAttempts && withinDeadline) {
+                log.warn("Retrying '{}' request send - requestId: {} | attempt: {} | error: {}",
+                        operation, requestId, attempt, error.getMessage());
+                CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS)
+                        .execute(() -> send(record, future, operation, requestId, attempt + 1, deadlineNanos));
+                return;
+            }
+
+            log.error("Error sending '{}' request - requestId: {} | attempts: {} | error: {}",
+                    operation, requestId, attempt, error.getMessage());
+            future.completeExceptionally(new ApiException(ApiException.ErrorCode.SERVICE_UNAVAILABLE,
+                    "Failed to publish '" + operation + "' request",
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), requestId));
+        });
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,246 @@
+package com.it.gateway.service.Kafka;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+import com.it.gateway.utils.HashedTimerWheel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single owner of every in-flight Kafka request/reply call.
+ *
+ * Each registered request gets a deadline on a hashed timer wheel; when the deadline
+ * passes before a reply arrives the entry is evicted and its future fails with a
+ * gateway timeout. The number of outstanding entries is bounded so a backend that
+ * drops messages cannot grow the heap without limit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PendingRequestRegistry {
+
+    @Value("${gateway.kafka.reply-timeout-ms:60000}")
+    private long defaultTimeoutMs;
+
+    @Value("${gateway.kafka.pending.max-requests:10000}")
+    private int maxPendingRequests;
+
+    @Value("${gateway.kafka.pending.tick-ms:50}")
+    private long tickMs;
+
+    @Value("${gateway.kafka.pending.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${gateway.kafka.pending.expiry-threads:2}")
+    private int expiryThreads;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private HashedTimerWheel timerWheel;
+    private ExecutorService expiryExecutor;
+    private Counter expiredCounter;
+    private Counter rejectedCounter;
+    private Counter unmatchedCounter;
+
+    @PostConstruct
+    void start() {
+        // Expiry completes futures off the wheel thread so their dependents cannot stall the wheel
+        AtomicInteger expiryThreadCount = new AtomicInteger();
+        expiryExecutor = Executors.newFixedThreadPool(expiryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "kafka-reply-expiry-" + expiryThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timerWheel = new HashedTimerWheel("kafka-reply-timer", Duration.ofMillis(tickMs), wheelSize, expiryExecutor);
+        Gauge.builder("gateway.kafka.pending.requests", pendingCount, AtomicInteger::get)
+                .description("Kafka requests waiting for a reply")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("gateway.kafka.pending.expired")
+                .description("Kafka requests evicted because no reply arrived before the deadline")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("gateway.kafka.pending.rejected")
+                .description("Kafka requests rejected because the registry was full")
+                .register(meterRegistry);
+        unmatchedCounter = Counter.builder("gateway.kafka.pending.unmatched")
+                .description("Kafka replies dropped because their request was already answered, expired or unknown")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        timerWheel.close();
+        expiryExecutor.shutdown();
+        pendingRequests.forEach((requestId, request) -> request.future.completeExceptionally(
+                new ApiException(ApiException.ErrorCode.GATEWAY_OVERLOADED, "Gateway is shutting down",
+                        HttpStatus.SERVICE_UNAVAILABLE.value(), requestId)));
+    }
+
+    public Duration getDefaultTimeout() {
+        return Duration.ofMillis(defaultTimeoutMs);
+    }
+
+    public <T> CompletableFuture<T> register(String requestId, String operation) {
+        return register(requestId, operation, getDefaultTimeout());
+    }
+
+    /**
+     * Register a new in-flight request. The returned future is completed by
+     * {@link #take(String)} on reply, or exceptionally when the timeout elapses.
+     */
+    public <T> CompletableFuture<T> register(String requestId, String operation, Duration timeout) {
+        if (pendingCount.incrementAndGet() > maxPendingRequests) {
+            pendingCount.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("Pending request registry full - operation: {} | requestId: {} | max: {}",
+                    operation, requestId, maxPendingRequests);
+            throw new ApiException(ApiException.ErrorCode.GATEWAY_OVERLOADED, "Too many pending requests",
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), requestId);
+        }
+
+        // Fully build the entry before publishing it so a fast reply always sees its timeout
+        PendingRequest<T> request = new PendingRequest<>(operation, System.nanoTime() + timeout.toNanos());
+        request.timeout = timerWheel.schedule(() -> expire(requestId, request), timeout);
+        if (pendingRequests.putIfAbsent(requestId, request) != null) {
+            request.timeout.cancel();
+            pendingCount.decrementAndGet();
+            throw new ApiException(ApiException.ErrorCode.CONFLICT, "Duplicate requestId",
+                    HttpStatus.CONFLICT.value(), requestId);
+        }
+
+        request.future.whenComplete((result, error) -> release(requestId, request));
+        if (request.timeout.isExpired()) {
+            // The deadline fired before the entry was published and found nothing to evict
+            expire(requestId, request);
+        }
+        return request.future;
+    }
+
+    /**
+     * Remove and return the pending future for a reply, or null when the request
+     * is unknown (already answered, expired or owned by another instance).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> take(String requestId) {
+        if (requestId == null) {
+            return null;
+        }
+        PendingRequest<?> request = pendingRequests.remove(requestId);
+        if (request == null) {
+            unmatchedCounter.increment();
+            return null;
+        }
+        pendingCount.decrementAndGet();
+        request.timeout.cancel();
+        return (CompletableFuture<T>) request.future;
+    }
+
+    public boolean isPending(String requestId) {
+        return requestId != null && pendingRequests.containsKey(requestId);
+    }
+
+    /**
+     * Expire the request if its local deadline has already passed, e.g. when the reply
+     * arrives before the timer wheel got to it. Only the deadline this node registered
+     * is used, never one carried by the reply, so clock skew between nodes cannot drop
+     * a reply that is still in time.
+     *
+     * @return true when the request was pending and is now failed with a gateway timeout
+     */
+    public boolean expireIfPastDeadline(String requestId) {
+        PendingRequest<?> request = requestId == null ? null : pendingRequests.get(requestId);
+        if (request == null || request.deadlineNanos - System.nanoTime() > 0) {
+            return false;
+        }
+        return expire(requestId, request);
+    }
+
+    /**
+     * Fail a pending request immediately with a gateway timeout.
+     */
+    public void timeout(String requestId) {
+        PendingRequest<?> request = pendingRequests.get(requestId);
+        if (request != null) {
+            expire(requestId, request);
+        }
+    }
+
+    /**
+     * Return a view of the future that fails with a gateway timeout after the given
+     * deadline. The original future, and everything observing it, is not affected.
+     */
+    public <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future, String operation,
+                                                 String requestId, Duration deadline) {
+        CompletableFuture<T> view = new CompletableFuture<>();
+        HashedTimerWheel.Timeout timeout = timerWheel.schedule(() -> view.completeExceptionally(
+                new ApiException(ApiException.ErrorCode.GATEWAY_TIMEOUT,
+                        "Timed out waiting for '" + operation + "' reply within the client deadline",
+                        HttpStatus.GATEWAY_TIMEOUT.value(), requestId)), deadline);
+        future.whenComplete((result, error) -> {
+            timeout.cancel();
+            if (error == null) {
+                view.complete(result);
+            } else {
+                view.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return view;
+    }
+
+    public int size() {
+        return pendingCount.get();
+    }
+
+    private boolean expire(String requestId, PendingRequest<?> request) {
+        if (!pendingRequests.remove(requestId, request)) {
+            return false;
+        }
+        pendingCount.decrementAndGet();
+        request.timeout.cancel();
+        expiredCounter.increment();
+        log.info("Timeout request - operation: {} | requestId: {}", request.operation, requestId);
+        request.future.completeExceptionally(new ApiException(ApiException.ErrorCode.GATEWAY_TIMEOUT,
+                "Timed out waiting for '" + request.operation + "' reply",
+                HttpStatus.GATEWAY_TIMEOUT.value(), requestId));
+        return true;
+    }
+
+    private void release(String requestId, PendingRequest<?> request) {
+        if (pendingRequests.remove(requestId, request)) {
+            pendingCount.decrementAndGet();
+            request.timeout.cancel();
+        }
+    }
+
+    private static final class PendingRequest<T> {
+        private final String operation;
+        private final long deadlineNanos;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile HashedTimerWheel.Timeout timeout;
+
+        private PendingRequest(String operation, long deadlineNanos) {
+            this.operation = operation;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounds the number of outstanding Kafka round trips per operation.
+ *
+ * A permit is held from send until the reply, timeout or failure completes the call.
+ * When the budget is exhausted a caller waits briefly for a permit and is otherwise
+ * rejected with 503 and a Retry-After hint. The wait happens on the calling request
+ * thread, which stays blocked for up to {@code queue-timeout-ms}; the timeout is kept
+ * small so a platform-thread pool is not drained by queued callers.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RequestAdmission {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.admission.default-budget:200}")
+    private int defaultBudget;
+
+    @Value("#{${gateway.admission.budgets:{:}}}")
+    private Map<String, Integer> budgets;
+
+    @Value("${gateway.admission.queue-timeout-ms:50}")
+    private long queueTimeoutMs;
+
+    @Value("${gateway.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final ConcurrentMap<String, Budget> operationBudgets = new ConcurrentHashMap<>();
+
+    public <T> CompletableFuture<T> execute(String operation, String requestId, Supplier<CompletableFuture<T>> call) {
+        Budget budget = operationBudgets.computeIfAbsent(operation, this::createBudget);
+        if (!budget.tryAcquire(queueTimeoutMs)) {
+            budget.rejected.increment();
+            log.warn("Admission rejected '{}' - requestId: {} | budget: {}", operation, requestId, budget.limit);
+            return CompletableFuture.failedFuture(new ApiException(ApiException.ErrorCode.GATEWAY_OVERLOADED,
+                    "Too many in-flight '" + operation + "' requests",
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), requestId, retryAfterSeconds));
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            budget.permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> budget.permits.release());
+        return result;
+    }
+
+    private Budget createBudget(String operation) {
+        int limit = budgets.getOrDefault(operation, defaultBudget);
+        Budget budget = new Budget(limit, Counter.builder("gateway.admission.rejected")
+                .description("Kafka requests rejected because the operation budget was exhausted")
+                .tag("operation", operation)
+                .register(meterRegistry));
+        Gauge.builder("gateway.admission.in.flight", budget, Budget::inFlight)
+                .description("Kafka requests currently holding an admission permit")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.budget", budget, b -> b.limit)
+                .description("Maximum in-flight Kafka requests for the operation")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    private static final class Budget {
+        private final int limit;
+        private final Semaphore permits;
+        private final Counter rejected;
+
+        private Budget(int limit, Counter rejected) {
+            this.limit = limit;
+            this.permits = new Semaphore(limit);
+            this.rejected = rejected;
+        }
+
+        private boolean tryAcquire(long timeoutMs) {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            try {
+                return timeoutMs > 0 && permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private double inFlight() {
+            return limit - permits.availablePermits();
+        }
+    }
+}
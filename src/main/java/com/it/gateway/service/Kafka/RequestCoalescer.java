@@ -0,0 +1,96 @@
+package com.it.gateway.service.Kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-flight execution of identical requests.
+ *
+ * The first caller for a key (the leader) performs the call; callers arriving while it
+ * is outstanding (followers) share its result instead of issuing their own Kafka round
+ * trip. Each caller gets its own dependent future, so cancelling one does not affect
+ * the others.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RequestCoalescer {
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, shared);
+        Stats keyStats = stats(key);
+        if (existing != null) {
+            keyStats.followers.increment();
+            log.debug("Coalesced request onto in-flight '{}'", key);
+            return ((CompletableFuture<T>) existing).copy();
+        }
+
+        keyStats.leaders.increment();
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            // Remove before completing so callers arriving afterwards start a fresh call
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.copy();
+    }
+
+    private Stats stats(String key) {
+        Stats existing = stats.get(key);
+        return existing != null ? existing : stats.computeIfAbsent(key, this::registerStats);
+    }
+
+    private Stats registerStats(String key) {
+        Stats keyStats = new Stats();
+        FunctionCounter.builder("gateway.kafka.coalescing.requests", keyStats.leaders, LongAdder::sum)
+                .description("Requests that issued a Kafka round trip")
+                .tags("operation", key, "role", "leader")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.kafka.coalescing.requests", keyStats.followers, LongAdder::sum)
+                .description("Requests served by an in-flight round trip of an identical request")
+                .tags("operation", key, "role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("gateway.kafka.coalescing.ratio", keyStats, Stats::ratio)
+                .description("Share of requests answered without their own Kafka round trip")
+                .tags("operation", key)
+                .register(meterRegistry);
+        return keyStats;
+    }
+
+    private static final class Stats {
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+
+        private double ratio() {
+            long coalesced = followers.sum();
+            long total = coalesced + leaders.sum();
+            return total == 0 ? 0.0 : (double) coalesced / total;
+        }
+    }
+}
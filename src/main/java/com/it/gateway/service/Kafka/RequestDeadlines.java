@@ -0,0 +1,80 @@
+package com.it.gateway.service.Kafka;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.enums.Constant;
+import com.it.gateway.utils.RequestContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves how long the gateway waits for an operation's reply.
+ *
+ * The registered request always uses the operation's own deadline: its adaptive
+ * timeout, which never exceeds the configured per-operation maximum. A client's
+ * {@code X-Request-Timeout} (milliseconds) only bounds that client's view of the
+ * reply, so a short client budget can neither shorten a request shared through the
+ * coalescer or cache nor count as a downstream timeout for the circuit breaker,
+ * the concurrency limiter or the adaptive timeouts.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RequestDeadlines {
+    private final PendingRequestRegistry pendingRequests;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+
+    @Value("#{${gateway.deadline.max-ms:{:}}}")
+    private Map<String, Long> maxTimeoutsMs;
+
+    @Value("${gateway.deadline.min-ms:50}")
+    private long minTimeoutMs;
+
+    public Duration operationTimeout(String operation) {
+        return adaptiveTimeouts.timeout(operation, maxTimeout(operation));
+    }
+
+    /**
+     * Bound the current HTTP client's wait for the future by its {@code X-Request-Timeout}.
+     * Must be called on the request thread. The given future is left untouched; when the
+     * budget is shorter than the operation timeout the caller gets a copy that fails with
+     * a gateway timeout once the budget elapses.
+     */
+    public <T> CompletableFuture<T> withClientBudget(CompletableFuture<T> future, String operation, String requestId) {
+        Long requested = requestedTimeoutMs();
+        if (requested == null || future.isDone()) {
+            return future;
+        }
+        Duration budget = Duration.ofMillis(Math.max(minTimeoutMs, requested));
+        if (budget.compareTo(operationTimeout(operation)) >= 0) {
+            return future;
+        }
+        return pendingRequests.withDeadline(future, operation, requestId, budget);
+    }
+
+    public Duration maxTimeout(String operation) {
+        Long maxMs = maxTimeoutsMs.get(operation);
+        return maxMs != null ? Duration.ofMillis(maxMs) : pendingRequests.getDefaultTimeout();
+    }
+
+    private Long requestedTimeoutMs() {
+        HttpServletRequest request = RequestContext.getCurrentRequest();
+        String header = request != null ? request.getHeader(Constant.REQUEST_TIMEOUT_HEADER) : null;
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", Constant.REQUEST_TIMEOUT_HEADER, header);
+            return null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.it.gateway.service.Redis;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
@@ -300,6 +301,48 @@ public class RedisService {
         }
     }
 
+    /**
+     * Sorted set operations - Add member with score
+     */
+    public Boolean zAdd(String key, Object value, double score) {
+        try {
+            Boolean result = redisTemplate.opsForZSet().add(key, value, score);
+            log.info("ZAdd key: {}, score: {}, result: {}", key, score, result);
+            return result;
+        } catch (Exception e) {
+            log.error("Error adding to sorted set: {}", key, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sorted set operations - Get members with scores in range
+     */
+    public Set<ZSetOperations.TypedTuple<Object>> zRangeByScoreWithScores(String key, double min, double max) {
+        try {
+            Set<ZSetOperations.TypedTuple<Object>> result = redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max);
+            log.info("ZRangeByScore key: {}, size: {}", key, result != null ? result.size() : 0);
+            return result;
+        } catch (Exception e) {
+            log.error("Error reading sorted set range: {}", key, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sorted set operations - Remove members with scores in range
+     */
+    public Long zRemoveRangeByScore(String key, double min, double max) {
+        try {
+            Long result = redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
+            log.info("ZRemRangeByScore key: {}, result: {}", key, result);
+            return result;
+        } catch (Exception e) {
+            log.error("Error removing sorted set range: {}", key, e);
+            throw e;
+        }
+    }
+
     /**
      * Rate limiting using sliding window
      */
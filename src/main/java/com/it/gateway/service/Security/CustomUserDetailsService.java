@@ -6,9 +6,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.model.User.UserInfo;
-import com.it.gateway.service.Redis.RedisService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,16 +16,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final RedisService redisService;
+    private final SessionNearCache sessionNearCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         try {
             log.info("Loading user by username: {}", username);
 
-            Object user = redisService.get(username);
-            ObjectMapper objectMapper = new ObjectMapper();
-            UserInfo userInfo = objectMapper.convertValue(user, UserInfo.class);
+            SessionNearCache.Session session = sessionNearCache.get(username);
+            UserInfo userInfo = session != null ? session.user() : null;
 
             if (userInfo == null) {
                 throw new UsernameNotFoundException("User not found");
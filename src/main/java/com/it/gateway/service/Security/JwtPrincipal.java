@@ -0,0 +1,23 @@
+package com.it.gateway.service.Security;
+
+import java.util.List;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Authenticated user built from verified access-token claims, so authenticating a
+ * request needs no user lookup.
+ */
+public record JwtPrincipal(
+        String username,
+        String role,
+        String organizationName,
+        String departmentName,
+        List<GrantedAuthority> authorities) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,22 +1,34 @@
 package com.it.gateway.service.Security;
 
 import java.security.Key;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import com.it.gateway.enums.RedisKey;
+import com.it.gateway.model.Roles.RoleInfo;
 import com.it.gateway.model.User.UserInfo;
-import com.it.gateway.service.Redis.RedisService;
+import com.it.gateway.utils.BoundedTtlCache;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,6 +36,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class JwtService {
+    private static final String ROLE_CLAIM = "role";
+    private static final String PERMISSIONS_CLAIM = "permissions";
+    private static final String DEFAULT_ROLE = "USER";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -33,65 +49,174 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long jwtRefreshExpiration;
 
-    private final RedisService redisService;
-
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final SessionNearCache sessionNearCache;
+    private final TokenRevocations tokenRevocations;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // Token digest -> verified token, each entry expiring with its token
+    private BoundedTtlCache<String, VerifiedToken> verifiedTokens;
+    // Username -> digests of their cached tokens, so logout can purge them; digests leave
+    // with their cache entries, so the index is bounded by the cache size (re-caching the
+    // same token puts an equal value, which the cache does not report as a removal)
+    private final ConcurrentMap<String, Set<String>> digestsByUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new BoundedTtlCache<>(verifiedCacheMaxSize, Duration.ofMillis(jwtExpiration),
+                (digest, verified) -> forgetDigest(verified.username(), digest));
     }
 
     private String generate(Map<String, Object> extraClaims, String username) { 
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
     public String generateAccessToken(UserInfo userInfo) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", userInfo.getUsername());
         claims.put("organizationName", userInfo.getOrganizationName());
         claims.put("departmentName", userInfo.getDepartmentName());
         claims.put("email", userInfo.getEmail());
+        RoleInfo role = userInfo.getRole();
+        if (role != null) {
+            claims.put(ROLE_CLAIM, role.getCode() != null ? role.getCode() : role.getName());
+            claims.put(PERMISSIONS_CLAIM, permissionsOf(role.getPermissions()));
+        }
         return generate(claims, userInfo.getUsername());
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private JwtPrincipal principalOf(Claims claims) {
+        // Tokens without a role claim keep the previous default role
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null || role.isBlank()) {
+            role = DEFAULT_ROLE;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT)));
+        Object permissions = claims.get(PERMISSIONS_CLAIM);
+        if (permissions instanceof Collection<?> granted) {
+            for (Object permission : granted) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(permission)));
+            }
+        }
+        return new JwtPrincipal(
+                claims.getSubject(),
+                role,
+                claims.get("organizationName", String.class),
+                claims.get("departmentName", String.class),
+                List.copyOf(authorities));
+    }
+
+    /**
+     * Flatten the backend's role permissions into authority strings. Lists give one
+     * authority per entry; maps give {@code resource} for {@code true} values and
+     * {@code resource:action} for each action in a list value.
+     */
+    private static List<String> permissionsOf(Object permissions) {
+        List<String> flattened = new ArrayList<>();
+        if (permissions instanceof Collection<?> list) {
+            list.forEach(permission -> flattened.add(String.valueOf(permission)));
+        } else if (permissions instanceof Map<?, ?> map) {
+            map.forEach((resource, value) -> {
+                if (Boolean.TRUE.equals(value)) {
+                    flattened.add(String.valueOf(resource));
+                } else if (value instanceof Collection<?> actions) {
+                    actions.forEach(action -> flattened.add(resource + ":" + action));
+                }
+            });
+        } else if (permissions instanceof String permission && !permission.isBlank()) {
+            flattened.add(permission);
+        }
+        return flattened;
+    }
+
+    /**
+     * Parse and verify a token once: signature, structure and expiry. Verified tokens
+     * are cached by digest until they expire, so repeat requests cost one hash lookup.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException when the token has expired
+     * @throws io.jsonwebtoken.JwtException when the token is malformed or its signature is invalid
+     */
+    public VerifiedToken verify(String token) {
+        String digest = TokenDigests.of(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        VerifiedToken verified = new VerifiedToken(token, digest, claims, principalOf(claims));
+        cache(digest, verified);
+        return verified;
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Drop every cached verification for a user, e.g. on logout.
+     */
+    public void evictUser(String username) {
+        Set<String> digests = digestsByUser.remove(username);
+        if (digests != null) {
+            digests.forEach(verifiedTokens::remove);
+        }
     }
 
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void cache(String digest, VerifiedToken verified) {
+        String username = verified.username();
+        Date expiresAt = verified.expiresAt();
+        if (username == null || expiresAt == null) {
+            return;
+        }
+        long ttlMs = expiresAt.getTime() - System.currentTimeMillis();
+        if (ttlMs <= 0) {
+            return;
+        }
+        // Indexed first, so an eviction right after the put always finds the digest to remove
+        digestsByUser.compute(username, (user, digests) -> {
+            Set<String> indexed = digests != null ? digests : ConcurrentHashMap.newKeySet();
+            indexed.add(digest);
+            return indexed;
+        });
+        verifiedTokens.put(digest, verified, Duration.ofMillis(ttlMs));
+    }
+
+    private void forgetDigest(String username, String digest) {
+        digestsByUser.computeIfPresent(username, (user, digests) -> {
+            digests.remove(digest);
+            return digests.isEmpty() ? null : digests;
+        });
     }
 
-    public boolean isTokenValid(String token, String username) {
-        final String tokenUsername = extractUsername(token);
 
-        String redisToken = (String) redisService.get(RedisKey.ACCESS_TOKEN_PREFIX + username);
-        if (redisToken == null || !redisToken.equals(token)) {
+    /**
+     * Whether a verified token may still be used. In session mode it must be the user's
+     * current access token (checked against the session near-cache); in stateless mode it
+     * must not have been revoked.
+     */
+    public boolean isTokenValid(VerifiedToken token) {
+        String username = token.username();
+        if (username == null) {
             return false;
         }
-
-        return (tokenUsername.equals(username));
+        if (tokenRevocations.isStateless()) {
+            return !tokenRevocations.isRevoked(token);
+        }
+        SessionNearCache.Session session = sessionNearCache.get(username);
+        return session != null && token.digest().equals(session.tokenFingerprint());
     }
 }
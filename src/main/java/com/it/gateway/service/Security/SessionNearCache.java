@@ -0,0 +1,113 @@
+package com.it.gateway.service.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.enums.RedisKey;
+import com.it.gateway.model.User.UserInfo;
+import com.it.gateway.service.Redis.RedisService;
+import com.it.gateway.utils.BoundedTtlCache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process copy of each user's session state: the fingerprint of their current access
+ * token (absent in stateless validation mode) and their user snapshot, loaded from Redis
+ * on first use.
+ *
+ * Whenever a node stores or removes a user's tokens it calls {@link #invalidate(String)},
+ * which drops the local entry and publishes the username on a pub/sub channel so every
+ * other node drops its copy too. Entries also expire after a short TTL as a safety net
+ * for missed messages. The cache ({@link BoundedTtlCache}) is read without locking and
+ * evicts approximately least recently used entries, so at {@code max-size} an idle
+ * user is evicted, not a busy one.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SessionNearCache {
+
+    public record Session(String tokenFingerprint, UserInfo user) {
+    }
+
+    private final RedisService redisService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${gateway.session.near-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${gateway.session.near-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${gateway.session.near-cache.invalidation-channel:gateway:session:invalidate}")
+    private String invalidationChannel;
+
+    // Bumped on every invalidation; a load that overlaps one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private BoundedTtlCache<String, Session> sessions;
+
+    @PostConstruct
+    void init() {
+        sessions = new BoundedTtlCache<>(maxSize, Duration.ofMillis(ttlMs));
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(invalidationChannel));
+    }
+
+    /**
+     * Current session of a user, or null when they have no user info stored.
+     */
+    public Session get(String username) {
+        Session session = sessions.get(username);
+        if (session != null) {
+            return session;
+        }
+
+        long generation = invalidations.get();
+        String accessToken = (String) redisService.get(RedisKey.ACCESS_TOKEN_PREFIX + username);
+        UserInfo user = objectMapper.convertValue(redisService.get(username), UserInfo.class);
+        if (user == null) {
+            return null;
+        }
+
+        session = new Session(accessToken != null ? TokenDigests.of(accessToken) : null, user);
+        if (invalidations.get() == generation) {
+            sessions.put(username, session);
+        }
+        return session;
+    }
+
+    /**
+     * Drop a user's session on every gateway node.
+     */
+    public void invalidate(String username) {
+        evictLocal(username);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, username);
+        } catch (RuntimeException e) {
+            log.warn("Session invalidation publish failed - username: {} | error: {}", username, e.getMessage());
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String username = new String(message.getBody(), StandardCharsets.UTF_8);
+        evictLocal(username);
+        log.debug("Session invalidated - username: {}", username);
+    }
+
+    private void evictLocal(String username) {
+        invalidations.incrementAndGet();
+        sessions.remove(username);
+    }
+}
@@ -0,0 +1,249 @@
+package com.it.gateway.service.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.it.gateway.enums.RedisKey;
+import com.it.gateway.service.Redis.RedisService;
+import com.it.gateway.utils.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation set for stateless token validation.
+ *
+ * Two kinds of revocation are kept: single tokens by {@code jti} (until the token would
+ * expire anyway) and per-user cutoffs that revoke every token issued before them. Redis
+ * holds the authoritative copy; every node keeps the set in memory behind a Bloom filter,
+ * reloads it periodically and applies new revocations immediately from a pub/sub
+ * channel, so checking a token never touches Redis.
+ *
+ * Checks read the current set without locking. Updates and the swap to a reloaded set
+ * share one lock, so a revocation applied while a reload is in progress is either
+ * carried over into the new set or applied to it, never lost.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocations {
+    private static final String TOKEN_PREFIX = "jti|";
+    private static final String USER_PREFIX = "user|";
+
+    private final RedisService redisService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.validation-mode:session}")
+    private String validationMode;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${jwt.revocation.sync-interval-ms:30000}")
+    private long syncIntervalMs;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.channel:gateway:token:revocations}")
+    private String channel;
+
+    private final Object updateLock = new Object();
+    private volatile RevocationSet current;
+    private ScheduledExecutorService syncExecutor;
+
+    @PostConstruct
+    void start() {
+        current = new RevocationSet(new BloomFilter(expectedEntries, falsePositiveRate),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        if (!isStateless()) {
+            return;
+        }
+        listenerContainer.addMessageListener(this::onRevocation, new ChannelTopic(channel));
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(this::sync, 0, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isStateless() {
+        return "stateless".equalsIgnoreCase(validationMode);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        RevocationSet revocations = current;
+        String jti = token.claims().getId();
+        if (jti != null && revocations.bloom.mightContain(jti) && revocations.tokens.containsKey(jti)) {
+            return true;
+        }
+        Long cutoff = revocations.userCutoffs.get(token.username());
+        Date issuedAt = token.claims().getIssuedAt();
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() < cutoff);
+    }
+
+    /**
+     * Revoke one token until it expires.
+     */
+    public void revokeToken(VerifiedToken token) {
+        String jti = token.claims().getId();
+        if (jti == null || token.expiresAt() == null) {
+            return;
+        }
+        long expiresAt = token.expiresAt().getTime();
+        redisService.zAdd(RedisKey.REVOKED_TOKEN_IDS, jti, expiresAt);
+        addToken(jti, expiresAt);
+        publish(TOKEN_PREFIX + jti + "|" + expiresAt);
+    }
+
+    /**
+     * Revoke every token of a user issued before the current second. Tokens only carry
+     * issue times in whole seconds, so the token presented with the logout should be
+     * revoked with {@link #revokeToken(VerifiedToken)} as well.
+     */
+    public void revokeUser(String username) {
+        long cutoff = System.currentTimeMillis() / 1000 * 1000;
+        redisService.hSet(RedisKey.REVOKED_USER_CUTOFFS, username, cutoff);
+        addUserCutoff(username, cutoff);
+        publish(USER_PREFIX + username + "|" + cutoff);
+    }
+
+    private void addToken(String jti, long expiresAt) {
+        synchronized (updateLock) {
+            current.addToken(jti, expiresAt);
+        }
+    }
+
+    private void addUserCutoff(String username, long cutoff) {
+        synchronized (updateLock) {
+            current.addUserCutoff(username, cutoff);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes still pick the revocation up on their next sync
+            log.warn("Token revocation publish failed - error: {}", e.getMessage());
+        }
+    }
+
+    private void onRevocation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf('|');
+        try {
+            long value = Long.parseLong(body.substring(separator + 1));
+            if (body.startsWith(TOKEN_PREFIX)) {
+                addToken(body.substring(TOKEN_PREFIX.length(), separator), value);
+            } else if (body.startsWith(USER_PREFIX)) {
+                addUserCutoff(body.substring(USER_PREFIX.length(), separator), value);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+        }
+    }
+
+    /**
+     * Reload the revocation set from Redis, dropping entries that can no longer match a
+     * valid token. Entries applied locally in the meantime are carried over: Redis is read
+     * without the lock, the merge with the previous set and the swap happen under it.
+     */
+    private void sync() {
+        try {
+            long now = System.currentTimeMillis();
+            redisService.zRemoveRangeByScore(RedisKey.REVOKED_TOKEN_IDS, Double.NEGATIVE_INFINITY, now);
+
+            ConcurrentMap<String, Long> tokens = new ConcurrentHashMap<>();
+            Set<ZSetOperations.TypedTuple<Object>> stored =
+                    redisService.zRangeByScoreWithScores(RedisKey.REVOKED_TOKEN_IDS, now, Double.POSITIVE_INFINITY);
+            if (stored != null) {
+                for (ZSetOperations.TypedTuple<Object> entry : stored) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        tokens.put(entry.getValue().toString(), entry.getScore().longValue());
+                    }
+                }
+            }
+
+            // A cutoff older than the token lifetime cannot match an unexpired token
+            ConcurrentMap<String, Long> userCutoffs = new ConcurrentHashMap<>();
+            for (Map.Entry<Object, Object> entry : redisService.hGetAll(RedisKey.REVOKED_USER_CUTOFFS).entrySet()) {
+                long cutoff = ((Number) entry.getValue()).longValue();
+                if (cutoff + jwtExpiration > now) {
+                    userCutoffs.put(entry.getKey().toString(), cutoff);
+                } else {
+                    redisService.hDelete(RedisKey.REVOKED_USER_CUTOFFS, entry.getKey());
+                }
+            }
+
+            synchronized (updateLock) {
+                RevocationSet previous = current;
+                previous.tokens.forEach((jti, expiresAt) -> {
+                    if (expiresAt > now) {
+                        tokens.putIfAbsent(jti, expiresAt);
+                    }
+                });
+                previous.userCutoffs.forEach((username, cutoff) -> userCutoffs.merge(username, cutoff, Math::max));
+
+                BloomFilter bloom = new BloomFilter(Math.max(expectedEntries, 2L * tokens.size()), falsePositiveRate);
+                tokens.keySet().forEach(bloom::add);
+                current = new RevocationSet(bloom, tokens, userCutoffs);
+            }
+            log.debug("Synced token revocations - tokens: {} | users: {}", tokens.size(), userCutoffs.size());
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed - error: {}", e.getMessage());
+        }
+    }
+
+    private static final class RevocationSet {
+        private final BloomFilter bloom;
+        private final ConcurrentMap<String, Long> tokens;
+        private final ConcurrentMap<String, Long> userCutoffs;
+
+        private RevocationSet(BloomFilter bloom, ConcurrentMap<String, Long> tokens,
+                ConcurrentMap<String, Long> userCutoffs) {
+            this.bloom = bloom;
+            this.tokens = tokens;
+            this.userCutoffs = userCutoffs;
+        }
+
+        private void addToken(String jti, long expiresAt) {
+            // Exact set first, so a Bloom hit always finds the entry
+            tokens.put(jti, expiresAt);
+            bloom.add(jti);
+        }
+
+        private void addUserCutoff(String username, long cutoff) {
+            userCutoffs.merge(username, cutoff, Math::max);
+        }
+    }
+}
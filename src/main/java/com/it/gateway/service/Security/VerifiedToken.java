@@ -0,0 +1,21 @@
+package com.it.gateway.service.Security;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * An access token whose signature and expiry have been checked, with its SHA-256
+ * digest, claims and the principal built from them, so callers never parse or hash
+ * the same token twice.
+ */
+public record VerifiedToken(String token, String digest, Claims claims, JwtPrincipal principal) {
+
+    public String username() {
+        return claims.getSubject();
+    }
+
+    public Date expiresAt() {
+        return claims.getExpiration();
+    }
+}
@@ -1,19 +1,26 @@
 package com.it.gateway.service.Ticket;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.model.Ticket.CategoryInfo;
 import com.it.gateway.enums.Operation;
+import com.it.gateway.model.General.CachedValue;
 import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Cache.ReferenceDataCache;
+import com.it.gateway.service.Kafka.KafkaReplyDispatcher;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+import com.it.gateway.service.Kafka.PendingRequestRegistry;
+import com.it.gateway.service.Kafka.RequestCoalescer;
+import com.it.gateway.utils.EncodedJson;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,18 +28,69 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class CategoryService {
-    private final ConcurrentMap<String, CompletableFuture<List<CategoryInfo>>> pendingRequests = new ConcurrentHashMap<>();
-    private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
+    private final PendingRequestRegistry pendingRequests;
+    private final KafkaRequestClient kafkaRequestClient;
+    private final RequestCoalescer requestCoalescer;
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceDataEvents referenceDataEvents;
+    private final KafkaReplyDispatcher replyDispatcher;
     private final ObjectMapper objectMapper;
 
+    private final ReferenceDataStore<CategoryInfo> store = new ReferenceDataStore<>(
+        "category",
+        CategoryInfo::getId,
+        CategoryInfo::getCode,
+        Comparator.comparing(CategoryInfo::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())),
+        category -> Boolean.TRUE.equals(category.getIsActive())
+    );
+
+    @PostConstruct
+    void registerReplyHandler() {
+        replyDispatcher.register(Operation.OPERATION_GET_ALL_CATEGORIES, new TypeReference<List<CategoryInfo>>() {}, this::handleCategoryResponse);
+    }
+
     public void timeoutRequest(String requestId) {
-        TicketServiceSupport.timeout(pendingRequests, requestId, log);
+        pendingRequests.timeout(requestId);
+    }
+
+    public CompletableFuture<CachedValue<List<CategoryInfo>>> getAllCategories(String requestId, boolean activeOnly) {
+        return store.all(loadCategories(requestId), activeOnly);
+    }
+
+    /**
+     * Same list as {@link #getAllCategories}, already encoded as JSON.
+     */
+    public CompletableFuture<CachedValue<EncodedJson>> getAllCategoriesEncoded(String requestId, boolean activeOnly) {
+        return store.allEncoded(loadCategories(requestId), activeOnly, objectMapper, requestId);
+    }
+
+    /**
+     * ETag of the current encoded list when a conditional request can be answered from it
+     * without loading, otherwise null.
+     */
+    public String getCurrentCategoriesEtag(boolean activeOnly) {
+        return store.currentEtag(TicketServiceSupport.currentList(referenceDataEvents, referenceDataCache,
+            Operation.OPERATION_GET_ALL_CATEGORIES), activeOnly);
+    }
+
+    public CompletableFuture<CachedValue<List<CategoryInfo>>> getCategoriesByIds(String requestId, List<UUID> ids) {
+        return store.byIds(loadCategories(requestId), ids);
+    }
+
+    public CompletableFuture<CachedValue<CategoryInfo>> getCategoryById(String requestId, UUID id) {
+        return store.byId(loadCategories(requestId), id, requestId);
+    }
+
+    public CompletableFuture<CachedValue<CategoryInfo>> getCategoryByCode(String requestId, String code) {
+        return store.byCode(loadCategories(requestId), code, requestId);
     }
 
-    public CompletableFuture<List<CategoryInfo>> getAllCategories(String requestId) {
+    private CompletableFuture<CachedValue<List<CategoryInfo>>> loadCategories(String requestId) {
         return TicketServiceSupport.requestList(
-            pendingRequests,
-            kafkaTemplate,
+            referenceDataEvents,
+            referenceDataCache,
+            requestCoalescer,
+            kafkaRequestClient,
             requestId,
             Operation.OPERATION_GET_ALL_CATEGORIES,
             log
@@ -42,9 +100,7 @@ public class CategoryService {
     public void handleCategoryResponse(KafkaMessage message) {
         TicketServiceSupport.handleListResponse(
             pendingRequests,
-            objectMapper,
             message,
-            new TypeReference<List<CategoryInfo>>() {},
             "categories",
             log
         );
@@ -0,0 +1,111 @@
+package com.it.gateway.service.Ticket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Local copy of one reference list, kept current from change events.
+ *
+ * Readers get an immutable {@link Snapshot}; every applied change publishes a new one
+ * with the next revision and the time it was applied. From {@link #startBootstrap()}
+ * until the list is bootstrapped from a full {@code get-all} reply, events are buffered
+ * and replayed on top of it (upserts and deletes are idempotent, so replaying one the
+ * reply already reflects is harmless) while readers keep the previous snapshot.
+ * Versions are tracked per entity: an event is ignored when it is not newer than the
+ * last one applied to the same id, including the delete of that id.
+ */
+public final class MaterializedList<T> {
+
+    public record Snapshot<T>(long revision, List<T> items, long updatedAt) {
+    }
+
+    private record Change<T>(T item, UUID deletedId, Long version) {
+    }
+
+    private final Function<T, UUID> idOf;
+    private final List<Change<T>> buffered = new ArrayList<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private Map<UUID, T> items;
+    private boolean bootstrapping = true;
+    private long revision;
+    private volatile Snapshot<T> snapshot;
+
+    public MaterializedList(Function<T, UUID> idOf) {
+        this.idOf = idOf;
+    }
+
+    /**
+     * Current snapshot, or null while the list has not been bootstrapped.
+     */
+    public Snapshot<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Buffer changes from now on until the next {@link #bootstrap(List)}, e.g. once the
+     * change topic has been assigned and before the full list is requested.
+     */
+    public synchronized void startBootstrap() {
+        bootstrapping = true;
+        buffered.clear();
+    }
+
+    public synchronized void bootstrap(List<T> all) {
+        // The full list is the new baseline; only buffered events may move entities past it
+        versions.clear();
+        items = new LinkedHashMap<>();
+        for (T item : all) {
+            items.put(idOf.apply(item), item);
+        }
+        for (Change<T> change : buffered) {
+            apply(change);
+        }
+        buffered.clear();
+        bootstrapping = false;
+        publish();
+    }
+
+    public synchronized void upsert(T item, Long version) {
+        onChange(new Change<>(item, null, version));
+    }
+
+    public synchronized void delete(UUID id, Long version) {
+        onChange(new Change<>(null, id, version));
+    }
+
+    private void onChange(Change<T> change) {
+        if (bootstrapping) {
+            buffered.add(change);
+            return;
+        }
+        if (apply(change)) {
+            publish();
+        }
+    }
+
+    private boolean apply(Change<T> change) {
+        UUID id = change.item() != null ? idOf.apply(change.item()) : change.deletedId();
+        if (change.version() != null) {
+            Long applied = versions.get(id);
+            if (applied != null && change.version() <= applied) {
+                return false;
+            }
+            versions.put(id, change.version());
+        }
+        if (change.item() != null) {
+            items.put(id, change.item());
+        } else {
+            items.remove(id);
+        }
+        return true;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot<>(++revision, List.copyOf(items.values()), System.currentTimeMillis());
+    }
+}
@@ -1,19 +1,26 @@
 package com.it.gateway.service.Ticket;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.model.Ticket.PriorityInfo;
+import com.it.gateway.model.General.CachedValue;
 import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Cache.ReferenceDataCache;
+import com.it.gateway.service.Kafka.KafkaReplyDispatcher;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+import com.it.gateway.service.Kafka.PendingRequestRegistry;
+import com.it.gateway.service.Kafka.RequestCoalescer;
+import com.it.gateway.utils.EncodedJson;
 import com.it.gateway.enums.Operation;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,20 +28,69 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class PriorityService {
-    private final ConcurrentMap<String, CompletableFuture<List<PriorityInfo>>> pendingRequests = new ConcurrentHashMap<>();
-    private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
+    private final PendingRequestRegistry pendingRequests;
+    private final KafkaRequestClient kafkaRequestClient;
+    private final RequestCoalescer requestCoalescer;
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceDataEvents referenceDataEvents;
+    private final KafkaReplyDispatcher replyDispatcher;
     private final ObjectMapper objectMapper;
 
+    private final ReferenceDataStore<PriorityInfo> store = new ReferenceDataStore<>(
+        "priority",
+        PriorityInfo::getId,
+        PriorityInfo::getCode,
+        Comparator.comparing(PriorityInfo::getLevel, Comparator.nullsLast(Comparator.naturalOrder())),
+        priority -> Boolean.TRUE.equals(priority.getIsActive())
+    );
+
+    @PostConstruct
+    void registerReplyHandler() {
+        replyDispatcher.register(Operation.OPERATION_GET_ALL_PRIORITIES, new TypeReference<List<PriorityInfo>>() {}, this::handlePriorityResponse);
+    }
+
     public void timeoutRequest(String requestId) {
-        TicketServiceSupport.timeout(pendingRequests, requestId, log);
+        pendingRequests.timeout(requestId);
+    }
+
+    public CompletableFuture<CachedValue<List<PriorityInfo>>> getAllPriorities(String requestId, boolean activeOnly) {
+        return store.all(loadPriorities(requestId), activeOnly);
+    }
+
+    /**
+     * Same list as {@link #getAllPriorities}, already encoded as JSON.
+     */
+    public CompletableFuture<CachedValue<EncodedJson>> getAllPrioritiesEncoded(String requestId, boolean activeOnly) {
+        return store.allEncoded(loadPriorities(requestId), activeOnly, objectMapper, requestId);
     }
 
+    /**
+     * ETag of the current encoded list when a conditional request can be answered from it
+     * without loading, otherwise null.
+     */
+    public String getCurrentPrioritiesEtag(boolean activeOnly) {
+        return store.currentEtag(TicketServiceSupport.currentList(referenceDataEvents, referenceDataCache,
+            Operation.OPERATION_GET_ALL_PRIORITIES), activeOnly);
+    }
+
+    public CompletableFuture<CachedValue<List<PriorityInfo>>> getPrioritiesByIds(String requestId, List<UUID> ids) {
+        return store.byIds(loadPriorities(requestId), ids);
+    }
 
+    public CompletableFuture<CachedValue<PriorityInfo>> getPriorityById(String requestId, UUID id) {
+        return store.byId(loadPriorities(requestId), id, requestId);
+    }
 
-    public CompletableFuture<List<PriorityInfo>> getAllPriorities(String requestId) {
+    public CompletableFuture<CachedValue<PriorityInfo>> getPriorityByCode(String requestId, String code) {
+        return store.byCode(loadPriorities(requestId), code, requestId);
+    }
+
+    private CompletableFuture<CachedValue<List<PriorityInfo>>> loadPriorities(String requestId) {
         return TicketServiceSupport.requestList(
-            pendingRequests,
-            kafkaTemplate,
+            referenceDataEvents,
+            referenceDataCache,
+            requestCoalescer,
+            kafkaRequestClient,
             requestId,
             Operation.OPERATION_GET_ALL_PRIORITIES,
             log
@@ -44,9 +100,7 @@ public class PriorityService {
     public void handlePriorityResponse(KafkaMessage message) {
         TicketServiceSupport.handleListResponse(
             pendingRequests,
-            objectMapper,
             message,
-            new TypeReference<List<PriorityInfo>>() {},
             "priorities",
             log
         );
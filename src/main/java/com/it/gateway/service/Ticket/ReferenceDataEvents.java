@@ -0,0 +1,186 @@
+package com.it.gateway.service.Ticket;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.it.gateway.enums.Constant;
+import com.it.gateway.enums.Operation;
+import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.model.Ticket.CategoryInfo;
+import com.it.gateway.model.Ticket.PriorityInfo;
+import com.it.gateway.model.Ticket.StatusInfo;
+import com.it.gateway.service.Cache.ReferenceDataCache;
+import com.it.gateway.service.Kafka.KafkaPayloadTypes;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps categories, priorities and statuses materialized from the ticket service's
+ * change-event topic, so lookups never need a Kafka round trip.
+ *
+ * Every gateway node consumes the topic in its own consumer group. Whenever the topic
+ * is assigned the consumer seeks to its end and each list is bootstrapped with a
+ * {@code get-all} request (retried until it succeeds); events received from then on
+ * are buffered and replayed on top of the reply, so nothing between the snapshot and
+ * the assignment is lost regardless of committed offsets.
+ * While a list is not bootstrapped, or when events are disabled, lookups fall back to
+ * the cached request/reply path; every change event also evicts that cached list so the
+ * fallback never serves data older than the last event. Each node consumes every event,
+ * so the eviction is local and not published to the other nodes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReferenceDataEvents implements ConsumerSeekAware {
+    private final KafkaRequestClient kafkaRequestClient;
+    private final KafkaPayloadTypes payloadTypes;
+    private final ReferenceDataCache referenceDataCache;
+
+    @Value("${gateway.reference.events.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gateway.reference.events.bootstrap-retry-ms:5000}")
+    private long bootstrapRetryMs;
+
+    private final AtomicLong assignments = new AtomicLong();
+
+    private final MaterializedList<CategoryInfo> categories = new MaterializedList<>(CategoryInfo::getId);
+    private final MaterializedList<PriorityInfo> priorities = new MaterializedList<>(PriorityInfo::getId);
+    private final MaterializedList<StatusInfo> statuses = new MaterializedList<>(StatusInfo::getId);
+
+    // get-all operation -> list it bootstraps
+    private final Map<String, MaterializedList<?>> lists = Map.of(
+        Operation.OPERATION_GET_ALL_CATEGORIES, categories,
+        Operation.OPERATION_GET_ALL_PRIORITIES, priorities,
+        Operation.OPERATION_GET_ALL_STATUSES, statuses
+    );
+
+    // change event -> get-all operation of the list it changes
+    private static final Map<String, String> LIST_OF_EVENT = Map.of(
+        Operation.CATEGORY_UPSERTED, Operation.OPERATION_GET_ALL_CATEGORIES,
+        Operation.CATEGORY_DELETED, Operation.OPERATION_GET_ALL_CATEGORIES,
+        Operation.PRIORITY_UPSERTED, Operation.OPERATION_GET_ALL_PRIORITIES,
+        Operation.PRIORITY_DELETED, Operation.OPERATION_GET_ALL_PRIORITIES,
+        Operation.STATUS_UPSERTED, Operation.OPERATION_GET_ALL_STATUSES,
+        Operation.STATUS_DELETED, Operation.OPERATION_GET_ALL_STATUSES
+    );
+
+    @PostConstruct
+    void registerPayloadTypes() {
+        payloadTypes.register(Operation.CATEGORY_UPSERTED, new TypeReference<CategoryInfo>() {});
+        payloadTypes.register(Operation.CATEGORY_DELETED, new TypeReference<CategoryInfo>() {});
+        payloadTypes.register(Operation.PRIORITY_UPSERTED, new TypeReference<PriorityInfo>() {});
+        payloadTypes.register(Operation.PRIORITY_DELETED, new TypeReference<PriorityInfo>() {});
+        payloadTypes.register(Operation.STATUS_UPSERTED, new TypeReference<StatusInfo>() {});
+        payloadTypes.register(Operation.STATUS_DELETED, new TypeReference<StatusInfo>() {});
+    }
+
+    /**
+     * Materialized snapshot for a {@code get-all} operation, or null when it is not available.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MaterializedList.Snapshot<T> snapshot(String getAllOperation) {
+        if (!enabled) {
+            return null;
+        }
+        MaterializedList<T> list = (MaterializedList<T>) lists.get(getAllOperation);
+        return list != null ? list.snapshot() : null;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+        callback.seekToEnd(assignments.keySet());
+        long generation = this.assignments.incrementAndGet();
+        lists.values().forEach(MaterializedList::startBootstrap);
+        // Off the consumer thread: the request may block on producer metadata
+        CompletableFuture.runAsync(() -> lists.forEach((operation, list) -> bootstrap(operation, list, generation)));
+    }
+
+    @KafkaListener(topics = Constant.TICKET_EVENT_CHANGE, groupId = "#{@kafkaReplyRouting.changeGroupId}",
+            autoStartup = "${gateway.reference.events.enabled:false}", containerFactory = "kafkaListenerContainerFactory")
+    private void listenChangeEvents(List<KafkaMessage> messages) {
+        log.info("Received ticket change events: {}", messages.size());
+        Set<String> changedLists = new HashSet<>();
+        for (KafkaMessage message : messages) {
+            // Records that failed deserialization arrive as null values
+            if (message == null) {
+                continue;
+            }
+            try {
+                String changedList = apply(message);
+                if (changedList != null) {
+                    changedLists.add(changedList);
+                }
+            } catch (Exception e) {
+                log.error("Error applying change event - operation: {} | messageId: {} | error: {}",
+                        message.getOperationType(), message.getMessageId(), e.getMessage());
+            }
+        }
+        // Once per list and batch, not per event
+        changedLists.forEach(referenceDataCache::evict);
+    }
+
+    /**
+     * Apply a change event and return the {@code get-all} operation of the list it changed.
+     */
+    private String apply(KafkaMessage message) {
+        Long version = message.getVersion();
+        switch (message.getOperationType()) {
+            case Operation.CATEGORY_UPSERTED -> categories.upsert((CategoryInfo) message.getPayload(), version);
+            case Operation.CATEGORY_DELETED -> categories.delete(((CategoryInfo) message.getPayload()).getId(), version);
+            case Operation.PRIORITY_UPSERTED -> priorities.upsert((PriorityInfo) message.getPayload(), version);
+            case Operation.PRIORITY_DELETED -> priorities.delete(((PriorityInfo) message.getPayload()).getId(), version);
+            case Operation.STATUS_UPSERTED -> statuses.upsert((StatusInfo) message.getPayload(), version);
+            case Operation.STATUS_DELETED -> statuses.delete(((StatusInfo) message.getPayload()).getId(), version);
+            default -> {
+                log.debug("Ignoring change event - operation: {}", message.getOperationType());
+                return null;
+            }
+        }
+        return LIST_OF_EVENT.get(message.getOperationType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void bootstrap(String operation, MaterializedList<T> list, long generation) {
+        if (generation != assignments.get()) {
+            // A later assignment started its own bootstrap
+            return;
+        }
+        String requestId = UUID.randomUUID().toString();
+        kafkaRequestClient.<List<T>>request(Constant.TICKET_EVENT_REQUEST, requestId, operation, null)
+            .whenComplete((items, error) -> {
+                if (generation != assignments.get()) {
+                    return;
+                }
+                if (error == null) {
+                    list.bootstrap(items);
+                    log.info("Bootstrapped '{}' - items: {}", operation, items.size());
+                    return;
+                }
+                log.warn("Bootstrap of '{}' failed, retrying in {} ms - error: {}", operation, bootstrapRetryMs, error.getMessage());
+                CompletableFuture.runAsync(() -> bootstrap(operation, list, generation),
+                    CompletableFuture.delayedExecutor(bootstrapRetryMs, TimeUnit.MILLISECONDS));
+            });
+    }
+}
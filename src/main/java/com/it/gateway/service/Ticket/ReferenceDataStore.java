@@ -0,0 +1,149 @@
+package com.it.gateway.service.Ticket;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.exception.ApiException;
+import com.it.gateway.model.General.CachedValue;
+import com.it.gateway.utils.EncodedJson;
+
+/**
+ * Indexed access to one reference list.
+ *
+ * The list itself comes from the materialized copy or the reference cache; the index
+ * is rebuilt only when a different list instance arrives and is published with a single
+ * volatile write, so readers never lock and lookups are O(1). The JSON encoding (and its
+ * ETag) of the full and active-only lists is cached with the index, so list responses
+ * reuse the same bytes until the list changes, and conditional requests can be answered
+ * from the stored ETag without loading the list at all, as long as the stored encoding
+ * belongs to the list instance a load would return right now.
+ */
+final class ReferenceDataStore<T> {
+
+    private static final class Indexed<T> {
+        private final List<T> source;
+        private final ReferenceIndex<T> index;
+        private volatile EncodedJson encodedItems;
+        private volatile EncodedJson encodedActiveItems;
+
+        private Indexed(List<T> source, ReferenceIndex<T> index) {
+            this.source = source;
+            this.index = index;
+        }
+    }
+
+    private final String entityName;
+    private final Function<T, UUID> idOf;
+    private final Function<T, String> codeOf;
+    private final Comparator<T> order;
+    private final Predicate<T> isActive;
+    private volatile Indexed<T> current;
+
+    ReferenceDataStore(String entityName, Function<T, UUID> idOf, Function<T, String> codeOf,
+            Comparator<T> order, Predicate<T> isActive) {
+        this.entityName = entityName;
+        this.idOf = idOf;
+        this.codeOf = codeOf;
+        this.order = order;
+        this.isActive = isActive;
+    }
+
+    CompletableFuture<CachedValue<List<T>>> all(CompletableFuture<CachedValue<List<T>>> source, boolean activeOnly) {
+        return index(source).thenApply(cached -> rewrap(cached,
+            activeOnly ? cached.getValue().activeItems() : cached.getValue().items()));
+    }
+
+    /**
+     * JSON encoding and ETag of the full or active-only list, computed once per list version.
+     */
+    CompletableFuture<CachedValue<EncodedJson>> allEncoded(CompletableFuture<CachedValue<List<T>>> source,
+            boolean activeOnly, ObjectMapper objectMapper, String requestId) {
+        return source.thenApply(cached -> {
+            Indexed<T> indexed = indexedOf(cached);
+            EncodedJson encoded = activeOnly ? indexed.encodedActiveItems : indexed.encodedItems;
+            if (encoded == null) {
+                encoded = encode(objectMapper, activeOnly ? indexed.index.activeItems() : indexed.index.items(), requestId);
+                if (activeOnly) {
+                    indexed.encodedActiveItems = encoded;
+                } else {
+                    indexed.encodedItems = encoded;
+                }
+            }
+            return rewrap(cached, encoded);
+        });
+    }
+
+    /**
+     * ETag of the encoded full or active-only list, or null when {@code currentSource} (the
+     * list a load would return right now, null if unknown) is not the list that was last
+     * encoded. An invalidated or replaced list therefore never answers a revalidation.
+     */
+    String currentEtag(List<T> currentSource, boolean activeOnly) {
+        Indexed<T> indexed = current;
+        if (currentSource == null || indexed == null || indexed.source != currentSource) {
+            return null;
+        }
+        EncodedJson encoded = activeOnly ? indexed.encodedActiveItems : indexed.encodedItems;
+        return encoded != null ? encoded.etag() : null;
+    }
+
+    CompletableFuture<CachedValue<List<T>>> byIds(CompletableFuture<CachedValue<List<T>>> source, Collection<UUID> ids) {
+        return index(source).thenApply(cached -> rewrap(cached, cached.getValue().getAll(ids)));
+    }
+
+    CompletableFuture<CachedValue<T>> byId(CompletableFuture<CachedValue<List<T>>> source, UUID id, String requestId) {
+        return index(source).thenApply(cached -> rewrap(cached,
+            required(cached.getValue().get(id), "id " + id, requestId)));
+    }
+
+    CompletableFuture<CachedValue<T>> byCode(CompletableFuture<CachedValue<List<T>>> source, String code, String requestId) {
+        return index(source).thenApply(cached -> rewrap(cached,
+            required(cached.getValue().getByCode(code), "code " + code, requestId)));
+    }
+
+    private CompletableFuture<CachedValue<ReferenceIndex<T>>> index(CompletableFuture<CachedValue<List<T>>> source) {
+        return source.thenApply(cached -> rewrap(cached, indexedOf(cached).index));
+    }
+
+    private Indexed<T> indexedOf(CachedValue<List<T>> cached) {
+        List<T> source = cached.getValue();
+        Indexed<T> indexed = current;
+        if (indexed != null && indexed.source == source) {
+            return indexed;
+        }
+        // Concurrent first readers of a new list may each build it; the last write wins
+        indexed = new Indexed<>(source, ReferenceIndex.of(source, idOf, codeOf, order, isActive));
+        current = indexed;
+        return indexed;
+    }
+
+    private EncodedJson encode(ObjectMapper objectMapper, List<T> items, String requestId) {
+        try {
+            return EncodedJson.of(objectMapper.writeValueAsBytes(items));
+        } catch (JsonProcessingException e) {
+            throw new ApiException(ApiException.ErrorCode.INTERNAL_ERROR,
+                "Failed to encode " + entityName + " list", HttpStatus.INTERNAL_SERVER_ERROR.value(), requestId);
+        }
+    }
+
+    private T required(T item, String key, String requestId) {
+        if (item == null) {
+            throw new ApiException(ApiException.ErrorCode.NOT_FOUND,
+                "No " + entityName + " with " + key, HttpStatus.NOT_FOUND.value(), requestId);
+        }
+        return item;
+    }
+
+    private static <V> CachedValue<V> rewrap(CachedValue<?> cached, V value) {
+        return new CachedValue<>(value, cached.getLoadedAt());
+    }
+}
@@ -0,0 +1,86 @@
+package com.it.gateway.service.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, pre-sorted view of one reference list with id and code indexes and an
+ * active-only view. Built once per list version and shared by all readers.
+ *
+ * When several items share an id or a code, both indexes resolve it to the first of
+ * them in list order, the same item a linear search of {@link #items()} would find.
+ */
+public final class ReferenceIndex<T> {
+    private final List<T> items;
+    private final List<T> activeItems;
+    private final Map<UUID, T> byId;
+    private final Map<String, T> byCode;
+
+    private ReferenceIndex(List<T> items, List<T> activeItems, Map<UUID, T> byId, Map<String, T> byCode) {
+        this.items = items;
+        this.activeItems = activeItems;
+        this.byId = byId;
+        this.byCode = byCode;
+    }
+
+    static <T> ReferenceIndex<T> of(List<T> source, Function<T, UUID> idOf, Function<T, String> codeOf,
+            Comparator<T> order, Predicate<T> isActive) {
+        List<T> sorted = new ArrayList<>(source);
+        sorted.sort(order);
+
+        Map<UUID, T> byId = new HashMap<>();
+        Map<String, T> byCode = new HashMap<>();
+        List<T> active = new ArrayList<>();
+        for (T item : sorted) {
+            UUID id = idOf.apply(item);
+            if (id != null) {
+                byId.putIfAbsent(id, item);
+            }
+            String code = codeOf.apply(item);
+            if (code != null) {
+                byCode.putIfAbsent(code, item);
+            }
+            if (isActive.test(item)) {
+                active.add(item);
+            }
+        }
+        return new ReferenceIndex<>(List.copyOf(sorted), List.copyOf(active), Map.copyOf(byId), Map.copyOf(byCode));
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    public List<T> activeItems() {
+        return activeItems;
+    }
+
+    public T get(UUID id) {
+        return byId.get(id);
+    }
+
+    public T getByCode(String code) {
+        return byCode.get(code);
+    }
+
+    /**
+     * Items for the given ids in request order; unknown ids are skipped.
+     */
+    public List<T> getAll(Collection<UUID> ids) {
+        List<T> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+}
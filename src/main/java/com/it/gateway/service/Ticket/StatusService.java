@@ -1,19 +1,26 @@
 package com.it.gateway.service.Ticket;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.enums.Operation;
+import com.it.gateway.model.General.CachedValue;
 import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Cache.ReferenceDataCache;
+import com.it.gateway.service.Kafka.KafkaReplyDispatcher;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+import com.it.gateway.service.Kafka.PendingRequestRegistry;
+import com.it.gateway.service.Kafka.RequestCoalescer;
+import com.it.gateway.utils.EncodedJson;
 import com.it.gateway.model.Ticket.StatusInfo;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,20 +28,70 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class StatusService {
-    private final ConcurrentMap<String, CompletableFuture<List<StatusInfo>>> pendingRequests = new ConcurrentHashMap<>();
-    private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
+    private final PendingRequestRegistry pendingRequests;
+    private final KafkaRequestClient kafkaRequestClient;
+    private final RequestCoalescer requestCoalescer;
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceDataEvents referenceDataEvents;
+    private final KafkaReplyDispatcher replyDispatcher;
     private final ObjectMapper objectMapper;
 
+    // Statuses have no active flag, so the active view is the full list
+    private final ReferenceDataStore<StatusInfo> store = new ReferenceDataStore<>(
+        "status",
+        StatusInfo::getId,
+        StatusInfo::getCode,
+        Comparator.comparing(StatusInfo::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())),
+        status -> true
+    );
+
+    @PostConstruct
+    void registerReplyHandler() {
+        replyDispatcher.register(Operation.OPERATION_GET_ALL_STATUSES, new TypeReference<List<StatusInfo>>() {}, this::handleStatusResponse);
+    }
+
     public void timeoutRequest(String requestId) {
-        TicketServiceSupport.timeout(pendingRequests, requestId, log);
+        pendingRequests.timeout(requestId);
+    }
+
+    public CompletableFuture<CachedValue<List<StatusInfo>>> getAllStatuses(String requestId, boolean activeOnly) {
+        return store.all(loadStatuses(requestId), activeOnly);
+    }
+
+    /**
+     * Same list as {@link #getAllStatuses}, already encoded as JSON.
+     */
+    public CompletableFuture<CachedValue<EncodedJson>> getAllStatusesEncoded(String requestId, boolean activeOnly) {
+        return store.allEncoded(loadStatuses(requestId), activeOnly, objectMapper, requestId);
     }
 
+    /**
+     * ETag of the current encoded list when a conditional request can be answered from it
+     * without loading, otherwise null.
+     */
+    public String getCurrentStatusesEtag(boolean activeOnly) {
+        return store.currentEtag(TicketServiceSupport.currentList(referenceDataEvents, referenceDataCache,
+            Operation.OPERATION_GET_ALL_STATUSES), activeOnly);
+    }
+
+    public CompletableFuture<CachedValue<List<StatusInfo>>> getStatusesByIds(String requestId, List<UUID> ids) {
+        return store.byIds(loadStatuses(requestId), ids);
+    }
 
+    public CompletableFuture<CachedValue<StatusInfo>> getStatusById(String requestId, UUID id) {
+        return store.byId(loadStatuses(requestId), id, requestId);
+    }
 
-    public CompletableFuture<List<StatusInfo>> getAllStatuses(String requestId) {
+    public CompletableFuture<CachedValue<StatusInfo>> getStatusByCode(String requestId, String code) {
+        return store.byCode(loadStatuses(requestId), code, requestId);
+    }
+
+    private CompletableFuture<CachedValue<List<StatusInfo>>> loadStatuses(String requestId) {
         return TicketServiceSupport.requestList(
-            pendingRequests,
-            kafkaTemplate,
+            referenceDataEvents,
+            referenceDataCache,
+            requestCoalescer,
+            kafkaRequestClient,
             requestId,
             Operation.OPERATION_GET_ALL_STATUSES,
             log
@@ -44,9 +101,7 @@ public class StatusService {
     public void handleStatusResponse(KafkaMessage message) {
         TicketServiceSupport.handleListResponse(
             pendingRequests,
-            objectMapper,
             message,
-            new TypeReference<List<StatusInfo>>() {},
             "statuses",
             log
         );
@@ -2,18 +2,18 @@ package com.it.gateway.service.Ticket;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.enums.Constant;
 import com.it.gateway.exception.ApiException;
+import com.it.gateway.model.General.CachedValue;
 import com.it.gateway.model.Kafka.KafkaMessage;
-import com.it.gateway.utils.KafkaMessageBuilder;
+import com.it.gateway.service.Cache.ReferenceDataCache;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+import com.it.gateway.service.Kafka.PendingRequestRegistry;
+import com.it.gateway.service.Kafka.RequestCoalescer;
 
 /**
  * Shared helpers for Ticket services to avoid duplicated boilerplate.
@@ -22,16 +22,6 @@ final class TicketServiceSupport {
 
     private TicketServiceSupport() {}
 
-    static <T> void timeout(ConcurrentMap<String, CompletableFuture<List<T>>> pendingRequests,
-                            String requestId,
-                            Logger log) {
-        CompletableFuture<List<T>> future = pendingRequests.remove(requestId);
-        if (future != null) {
-            future.complete(null);
-            log.info("Timeout request - requestId: {}", requestId);
-        }
-    }
-
     static ApiException apiException(String message, String requestId) {
         return new ApiException(
             ApiException.ErrorCode.INTERNAL_ERROR,
@@ -41,43 +31,55 @@ final class TicketServiceSupport {
         );
     }
 
-    static <T> CompletableFuture<List<T>> requestList(
-            ConcurrentMap<String, CompletableFuture<List<T>>> pendingRequests,
-            KafkaTemplate<String, KafkaMessage> kafkaTemplate,
+    /**
+     * Reference lists are answered from the event-driven materialized copy when it is
+     * available, otherwise from the two-tier cache, which refreshes them ahead of expiry;
+     * identical list operations in flight at the same time share one Kafka round trip.
+     * The client's own deadline only applies to the future returned to it.
+     */
+    static <T> CompletableFuture<CachedValue<List<T>>> requestList(
+            ReferenceDataEvents referenceDataEvents,
+            ReferenceDataCache referenceDataCache,
+            RequestCoalescer requestCoalescer,
+            KafkaRequestClient kafkaRequestClient,
             String requestId,
             String operation,
             Logger log) {
-        CompletableFuture<List<T>> future = new CompletableFuture<>();
-        try {
-            log.info("Request list '{}' - requestId: {}", operation, requestId);
-            pendingRequests.put(requestId, future);
-
-            KafkaMessage kafkaMessage = KafkaMessageBuilder.buildKafkaMessage(
-                requestId,
-                operation,
-                Constant.ResponseStatus.PROCESSING.getValue(),
-                null
-            );
+        log.info("Request list '{}' - requestId: {}", operation, requestId);
+        MaterializedList.Snapshot<T> snapshot = referenceDataEvents.snapshot(operation);
+        if (snapshot != null) {
+            // Kept current by change events; its age is the time since the last applied change
+            return CompletableFuture.completedFuture(new CachedValue<>(snapshot.items(), snapshot.updatedAt()));
+        }
+        CompletableFuture<CachedValue<List<T>>> shared = referenceDataCache.get(operation, () -> requestCoalescer.execute(operation,
+            () -> kafkaRequestClient.request(Constant.TICKET_EVENT_REQUEST, requestId, operation, null)));
+        return kafkaRequestClient.withClientBudget(shared, operation, requestId);
+    }
 
-            kafkaTemplate.send(Constant.TICKET_EVENT_REQUEST, requestId, kafkaMessage);
-        } catch (Exception e) {
-            log.error("Error requesting list '{}' - requestId: {} | error: {}", operation, requestId, e.getMessage());
-            pendingRequests.remove(requestId);
-            future.completeExceptionally(apiException(e.getMessage(), requestId));
+    /**
+     * The list {@link #requestList} would answer right now without a Kafka round trip, or
+     * null when it would have to load it.
+     */
+    static <T> List<T> currentList(
+            ReferenceDataEvents referenceDataEvents,
+            ReferenceDataCache referenceDataCache,
+            String operation) {
+        MaterializedList.Snapshot<T> snapshot = referenceDataEvents.snapshot(operation);
+        if (snapshot != null) {
+            return snapshot.items();
         }
-        return future;
+        CachedValue<List<T>> cached = referenceDataCache.peek(operation);
+        return cached != null ? cached.getValue() : null;
     }
 
     static <T> void handleListResponse(
-            ConcurrentMap<String, CompletableFuture<List<T>>> pendingRequests,
-            ObjectMapper objectMapper,
+            PendingRequestRegistry pendingRequests,
             KafkaMessage message,
-            TypeReference<List<T>> typeReference,
             String entityName,
             Logger log) {
-        CompletableFuture<List<T>> future = pendingRequests.remove(message.getMessageId());
+        CompletableFuture<List<T>> future = pendingRequests.take(message.getMessageId());
         if (future == null) {
-            log.warn("No pending request found for messageId: {}", message.getMessageId());
+            log.debug("Dropping late {} reply - messageId: {}", entityName, message.getMessageId());
             return;
         }
 
@@ -89,7 +91,9 @@ final class TicketServiceSupport {
                 return;
             }
 
-            List<T> items = objectMapper.convertValue(message.getPayload(), typeReference);
+            // Payload was decoded into the registered List<T> type by the Kafka deserializer
+            @SuppressWarnings("unchecked")
+            List<T> items = (List<T>) message.getPayload();
             log.info("handle {} response success requestId: {} | {}: {}",
                     capitalize(entityName), message.getMessageId(), entityName, items);
 
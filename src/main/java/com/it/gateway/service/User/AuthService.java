@@ -1,77 +1,75 @@
 package com.it.gateway.service.User;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it.gateway.enums.Constant;
 import com.it.gateway.enums.Operation;
 import com.it.gateway.enums.RedisKey;
 import com.it.gateway.exception.ApiException;
-import com.it.gateway.utils.KafkaMessageBuilder;
 import com.it.gateway.model.Kafka.KafkaMessage;
 import com.it.gateway.model.User.Login;
 import com.it.gateway.model.User.LoginResponse;
 import com.it.gateway.model.User.RefreshToken;
 import com.it.gateway.model.User.UserInfo;
+import com.it.gateway.service.Kafka.KafkaReplyDispatcher;
+import com.it.gateway.service.Kafka.KafkaRequestClient;
+import com.it.gateway.service.Kafka.PendingRequestRegistry;
 import com.it.gateway.service.Redis.RedisService;
 import com.it.gateway.service.Security.JwtService;
+import com.it.gateway.service.Security.SessionNearCache;
+import com.it.gateway.service.Security.TokenRevocations;
+import com.it.gateway.service.Security.VerifiedToken;
 import com.it.gateway.utils.RequestContext;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.Base64;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AuthService {
-    private final ConcurrentMap<String, CompletableFuture<LoginResponse>> pendingRequests = new ConcurrentHashMap<>();
+    private final PendingRequestRegistry pendingRequests;
     private final JwtService jwtService;
+    private final SessionNearCache sessionNearCache;
+    private final TokenRevocations tokenRevocations;
     private final RedisService redisService;
-    private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
+    private final KafkaRequestClient kafkaRequestClient;
+    private final KafkaReplyDispatcher replyDispatcher;
     private final ObjectMapper objectMapper;
 
     private static final Duration REFRESH_TOKEN_DURATION = Duration.ofHours(4);
     private static final Duration ACCESS_TOKEN_DURATION = Duration.ofHours(1);
     private static final Duration USER_INFO_DURATION = Duration.ofHours(4);
 
+    @PostConstruct
+    void registerReplyHandler() {
+        replyDispatcher.register(Operation.LOGIN, new TypeReference<UserInfo>() {}, this::handleLoginResponse);
+    }
+
     public void timeoutRequest(String requestId) {
-        CompletableFuture<LoginResponse> future = pendingRequests.remove(requestId);
-        if (future != null) {
-            future.complete(null);
-            log.info("Timeout request - requestId: {}", requestId);
-        }
+        pendingRequests.timeout(requestId);
     }
 
     public CompletableFuture<LoginResponse> login(Login payload, String requestId) {
-        CompletableFuture<LoginResponse> future = new CompletableFuture<>();
-        try {
-            log.info("Login request username: {} | requestId: {}", payload.getUsername(), requestId);
-            pendingRequests.put(requestId, future);
-
-            KafkaMessage kafkaMessage = KafkaMessageBuilder.buildKafkaMessage(requestId, Operation.LOGIN, "PROCESSING", payload);
-            kafkaTemplate.send(Constant.USER_EVENT_REQUEST, requestId, kafkaMessage);
-
-        } catch (Exception e) {
-            log.error("Error login username: {} | requestId: {} | Error: {}", payload.getUsername(), requestId, e.getMessage());
-            pendingRequests.remove(requestId);
-            future.completeExceptionally(createApiException(e.getMessage(), requestId));
-        }
-        return future;
+        log.info("Login request username: {} | requestId: {}", payload.getUsername(), requestId);
+        CompletableFuture<LoginResponse> response =
+            kafkaRequestClient.request(Constant.USER_EVENT_REQUEST, requestId, Operation.LOGIN, payload);
+        return kafkaRequestClient.withClientBudget(response, Operation.LOGIN, requestId);
     }
 
     public void handleLoginResponse(KafkaMessage message) {
-        CompletableFuture<LoginResponse> future = pendingRequests.remove(message.getMessageId());
+        CompletableFuture<LoginResponse> future = pendingRequests.take(message.getMessageId());
         if (future == null) {
-            log.warn("No pending request found for messageId: {}", message.getMessageId());
+            log.debug("Dropping late login reply - messageId: {}", message.getMessageId());
             return;
         }
 
@@ -82,9 +80,10 @@ public class AuthService {
                 return;
             }
 
-            UserInfo userInfo = objectMapper.convertValue(message.getPayload(), UserInfo.class);
+            UserInfo userInfo = (UserInfo) message.getPayload();
             log.info("Login response requestId: {} | userInfo: {}", message.getMessageId(), userInfo);
 
+            revokeSupersededTokens(userInfo.getUsername());
             LoginResponse response = createLoginResponse(userInfo);
             storeUserTokens(userInfo, response.getAccessToken(), response.getRefreshToken());
 
@@ -101,6 +100,9 @@ public class AuthService {
         try {
             log.info("Logout request username: {} | requestId: {}", username, requestId);
             removeUserTokens(username);
+            if (tokenRevocations.isStateless()) {
+                revokeAccessTokens(username);
+            }
             log.info("Logout success username: {} | requestId: {}", username, requestId);
         } catch (Exception e) {
             log.error("Error logout username: {} | requestId: {} | Error: {}", username, requestId, e.getMessage());
@@ -120,6 +122,7 @@ public class AuthService {
             }
 
             UserInfo userInfo = getUserInfoFromRedis(username);
+            revokeSupersededTokens(username);
             LoginResponse response = createLoginResponse(userInfo);
             storeUserTokens(userInfo, response.getAccessToken(), response.getRefreshToken());
 
@@ -147,14 +150,38 @@ public class AuthService {
     private void storeUserTokens(UserInfo userInfo, String accessToken, String refreshToken) {
         String username = userInfo.getUsername();
         redisService.set(RedisKey.REFRESH_TOKEN_PREFIX + username, refreshToken, REFRESH_TOKEN_DURATION);
-        redisService.set(RedisKey.ACCESS_TOKEN_PREFIX + username, accessToken, ACCESS_TOKEN_DURATION);
+        // Stateless validation never compares tokens, so there is nothing to store
+        if (!tokenRevocations.isStateless()) {
+            redisService.set(RedisKey.ACCESS_TOKEN_PREFIX + username, accessToken, ACCESS_TOKEN_DURATION);
+        }
         redisService.set(username, userInfo, USER_INFO_DURATION);
+        sessionNearCache.invalidate(username);
     }
 
     private void removeUserTokens(String username) {
         redisService.delete(RedisKey.REFRESH_TOKEN_PREFIX + username);
         redisService.delete(RedisKey.ACCESS_TOKEN_PREFIX + username);
         redisService.delete(username);
+        jwtService.evictUser(username);
+        sessionNearCache.invalidate(username);
+    }
+
+    /**
+     * In stateless mode a new login or refresh replaces the user's access token, as the
+     * stored token does in session mode. Must run before the new token is issued: the
+     * cutoff is the current second and only tokens issued before it are revoked.
+     */
+    private void revokeSupersededTokens(String username) {
+        if (tokenRevocations.isStateless()) {
+            revokeAccessTokens(username);
+        }
+    }
+
+    private void revokeAccessTokens(String username) {
+        tokenRevocations.revokeUser(username);
+        if (RequestContext.getCurrentCredentials() instanceof VerifiedToken token) {
+            tokenRevocations.revokeToken(token);
+        }
     }
 
     private boolean isValidRefreshToken(String username, String refreshToken) {
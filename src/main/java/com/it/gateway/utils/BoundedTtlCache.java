@@ -0,0 +1,189 @@
+package com.it.gateway.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Small in-process cache with a time to live (default or per entry) and a bound on the
+ * number of entries, evicting approximately least recently used entries.
+ *
+ * Reads never lock: an entry lives in a concurrent map and a read only sets its
+ * "referenced" bit. Entries are also kept in insertion order on a clock queue; when a
+ * put pushes the cache over its bound, the writer walks the queue from its head, gives
+ * referenced entries a second chance (clears the bit and moves them to the tail) and
+ * evicts the first one that has not been read since its last pass (CLOCK). Expired
+ * entries are dropped when read or when the clock reaches them.
+ *
+ * An optional removal listener is told about every value that expires, is evicted, is
+ * removed or is replaced by a put with a different (not equal) value; it runs on the
+ * calling thread, never under a lock.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    // Nodes on the clock queue, including ones already removed from the map
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final BiConsumer<K, V> removalListener;
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, null);
+    }
+
+    public BoundedTtlCache(int maxSize, Duration ttl, BiConsumer<K, V> removalListener) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.removalListener = removalListener;
+    }
+
+    public V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            if (unlink(node)) {
+                notifyRemoved(key, node.value);
+            }
+            return null;
+        }
+        // Only written when it changes, so hot entries do not bounce a cache line between readers
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Put an entry that expires after {@code ttl} instead of the cache default.
+     */
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, ttl.toNanos());
+    }
+
+    private void put(K key, V value, long entryTtlNanos) {
+        Node<K, V> node = new Node<>(key, value, System.nanoTime() + entryTtlNanos);
+        Node<K, V> previous = entries.put(key, node);
+        clock.add(node);
+        clockSize.incrementAndGet();
+        if (previous != null) {
+            previous.removed = true;
+            if (!Objects.equals(previous.value, value)) {
+                notifyRemoved(key, previous.value);
+            }
+        }
+        if (entries.size() > maxSize || clockSize.get() > 2 * maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node != null && unlink(node)) {
+            notifyRemoved(key, node.value);
+        }
+    }
+
+    public void clear() {
+        for (Node<K, V> node : entries.values()) {
+            if (unlink(node)) {
+                notifyRemoved(node.key, node.value);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        List<Node<K, V>> evicted = new ArrayList<>(1);
+        evictionLock.lock();
+        try {
+            long now = System.nanoTime();
+            // Every live node gets at most one second chance per eviction, so the walk ends
+            int secondChances = entries.size();
+            while (entries.size() > maxSize) {
+                Node<K, V> node = clock.poll();
+                if (node == null) {
+                    break;
+                }
+                clockSize.decrementAndGet();
+                if (node.removed) {
+                    continue;
+                }
+                if (node.referenced && !node.isExpired(now) && secondChances-- > 0) {
+                    node.referenced = false;
+                    clock.add(node);
+                    clockSize.incrementAndGet();
+                } else if (unlink(node)) {
+                    evicted.add(node);
+                }
+            }
+            // Replaced and removed nodes stay queued until the clock passes them; drop them
+            // in one sweep once they outnumber the live entries
+            if (clockSize.get() > 2 * maxSize) {
+                clock.removeIf(node -> {
+                    if (node.removed) {
+                        clockSize.decrementAndGet();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        evicted.forEach(node -> notifyRemoved(node.key, node.value));
+    }
+
+    private boolean unlink(Node<K, V> node) {
+        if (!entries.remove(node.key, node)) {
+            return false;
+        }
+        node.removed = true;
+        return true;
+    }
+
+    private void notifyRemoved(K key, V value) {
+        if (removalListener != null) {
+            removalListener.accept(key, value);
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiresAtNanos;
+        private volatile boolean referenced;
+        private volatile boolean removed;
+
+        private Node(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return expiresAtNanos - nowNanos <= 0;
+        }
+    }
+}
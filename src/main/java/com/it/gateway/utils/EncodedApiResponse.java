@@ -0,0 +1,129 @@
+package com.it.gateway.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.it.gateway.enums.Constant.ResponseStatus;
+import com.it.gateway.model.General.CachedValue;
+
+/**
+ * Builds success {@code ApiResponse} bodies around {@code data} that is already encoded
+ * as JSON, so hot read-only endpoints skip Jackson for the payload. Only the per-request
+ * fields (requestId, timestamp, dataAgeMs) are encoded per call; the output matches what
+ * the HTTP ObjectMapper would write for the same {@code ApiResponse}.
+ *
+ * Responses carry the data's ETag; a request whose {@code If-None-Match} already names it
+ * gets a bodiless 304 without the envelope being built. Callers that know the current
+ * ETag up front can check {@link #matches} and answer {@link #notModified} before loading.
+ */
+public final class EncodedApiResponse {
+
+    private static final byte[] STATUS_SUCCESS = ascii("{\"status\":\"" + ResponseStatus.SUCCESS.getValue() + "\"");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] DATA = ascii(",\"data\":");
+    private static final byte[] REQUEST_ID = ascii(",\"requestId\":");
+    private static final byte[] TIMESTAMP = ascii(",\"timestamp\":\"");
+    private static final byte[] DATA_AGE = ascii("\",\"dataAgeMs\":");
+    private static final byte[] END_AFTER_TIMESTAMP = ascii("\"}");
+    private static final byte[] END = ascii("}");
+
+    private EncodedApiResponse() {}
+
+    /**
+     * Encode a constant message once, as a quoted JSON string.
+     */
+    public static byte[] message(String message) {
+        return quote(message);
+    }
+
+    public static ResponseEntity<byte[]> success(String requestId, CachedValue<EncodedJson> data, byte[] message,
+            String ifNoneMatch, CacheControl cacheControl) {
+        String etag = data.getValue().etag();
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag, cacheControl);
+        }
+
+        byte[] quotedRequestId = quote(requestId);
+        byte[] timestamp = ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()));
+        byte[] age = data.getLoadedAt() > 0 ? ascii(Long.toString(data.ageMillis(System.currentTimeMillis()))) : null;
+        byte[] payload = data.getValue().json();
+
+        int length = STATUS_SUCCESS.length + MESSAGE.length + message.length + DATA.length + payload.length
+                + REQUEST_ID.length + quotedRequestId.length + TIMESTAMP.length + timestamp.length
+                + (age != null ? DATA_AGE.length + age.length + END.length : END_AFTER_TIMESTAMP.length);
+        byte[] body = new byte[length];
+        int offset = 0;
+        offset = append(body, offset, STATUS_SUCCESS);
+        offset = append(body, offset, MESSAGE);
+        offset = append(body, offset, message);
+        offset = append(body, offset, DATA);
+        offset = append(body, offset, payload);
+        offset = append(body, offset, REQUEST_ID);
+        offset = append(body, offset, quotedRequestId);
+        offset = append(body, offset, TIMESTAMP);
+        offset = append(body, offset, timestamp);
+        if (age != null) {
+            offset = append(body, offset, DATA_AGE);
+            offset = append(body, offset, age);
+            append(body, offset, END);
+        } else {
+            append(body, offset, END_AFTER_TIMESTAMP);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(length)
+                .body(body);
+    }
+
+    public static ResponseEntity<byte[]> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (etag == null || ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static byte[] quote(String value) {
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+        byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
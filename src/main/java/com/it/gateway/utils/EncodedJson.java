@@ -0,0 +1,26 @@
+package com.it.gateway.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * JSON bytes together with a strong entity tag derived from their content.
+ */
+public record EncodedJson(byte[] json, String etag) {
+
+    public static EncodedJson of(byte[] json) {
+        return new EncodedJson(json, etagOf(json));
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            // 128 bits of the digest are plenty to tell list versions apart
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
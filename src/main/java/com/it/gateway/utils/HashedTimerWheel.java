@@ -0,0 +1,167 @@
+package com.it.gateway.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timer wheel for large numbers of short-lived deadlines.
+ *
+ * Scheduling and cancelling are O(1) and lock-free for callers; a single worker
+ * thread advances the wheel one slot per tick and hands the tasks that are due to
+ * the task executor, so slow tasks or their dependents never delay later ticks.
+ * Cancelled timeouts are dropped lazily the next time the worker visits their slot.
+ */
+@Slf4j
+public final class HashedTimerWheel implements AutoCloseable {
+
+    public interface Timeout {
+        boolean cancel();
+
+        boolean isExpired();
+    }
+
+    private static final int ST_INIT = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final LinkedList<Entry>[] wheel;
+    private final Queue<Entry> additions = new ConcurrentLinkedQueue<>();
+    private final Executor taskExecutor;
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, Duration tick, int slots, Executor taskExecutor) {
+        if (tick.isZero() || tick.isNegative()) {
+            throw new IllegalArgumentException("tick must be positive: " + tick);
+        }
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = size - 1;
+        this.taskExecutor = taskExecutor;
+        this.wheel = new LinkedList[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new LinkedList<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, Duration delay) {
+        Entry entry = new Entry(task, System.nanoTime() + Math.max(0, delay.toNanos()));
+        additions.add(entry);
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                return;
+            }
+            transferAdditions(tick);
+            expireSlot(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferAdditions(long tick) {
+        // Bounded per tick so a burst of schedules cannot starve expiry
+        for (int i = 0; i < 100_000; i++) {
+            Entry entry = additions.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.state.get() != ST_INIT) {
+                continue;
+            }
+            long calculated = (entry.deadlineNanos - startNanos) / tickNanos;
+            entry.remainingRounds = (calculated - tick) / wheel.length;
+            long target = Math.max(calculated, tick);
+            wheel[(int) (target & mask)].add(entry);
+        }
+    }
+
+    private void expireSlot(LinkedList<Entry> slot) {
+        Iterator<Entry> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.state.get() != ST_INIT) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                entry.expire(taskExecutor);
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+
+    private static final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private long remainingRounds;
+
+        private Entry(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(ST_INIT, ST_CANCELLED);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire(Executor executor) {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                executor.execute(this::runTask);
+            } catch (RejectedExecutionException e) {
+                runTask();
+            }
+        }
+
+        private void runTask() {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Timer task failed | deadline in: {} ms | error: {}",
+                        TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()), t.getMessage());
+            }
+        }
+    }
+}
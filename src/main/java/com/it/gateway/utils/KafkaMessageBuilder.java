@@ -1,5 +1,6 @@
 package com.it.gateway.utils;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import org.springframework.stereotype.Component;
@@ -12,12 +13,21 @@ import lombok.extern.slf4j.Slf4j;
 public class KafkaMessageBuilder {
 
     public static KafkaMessage buildKafkaMessage(String requestId, String operationType, String status, Object payload) {
+        return buildKafkaMessage(requestId, operationType, status, payload, null);
+    }
+
+    /**
+     * Build a request that the backend should drop once {@code deadline} has passed
+     */
+    public static KafkaMessage buildKafkaMessage(String requestId, String operationType, String status, Object payload,
+            Instant deadline) {
         KafkaMessage kafkaMessage = new KafkaMessage();
         kafkaMessage.setMessageId(requestId);   
         kafkaMessage.setOperationType(operationType);
         kafkaMessage.setStatus(status);
         kafkaMessage.setPayload(payload);
         kafkaMessage.setCreatedAt(LocalDateTime.now());
+        kafkaMessage.setDeadline(deadline != null ? deadline.toEpochMilli() : null);
 
         log.info("KafkaMessageBuilder: {}", kafkaMessage);
 
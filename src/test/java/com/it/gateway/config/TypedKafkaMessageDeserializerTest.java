@@ -0,0 +1,68 @@
+package com.it.gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.model.Kafka.KafkaMessage;
+import com.it.gateway.service.Kafka.KafkaPayloadTypes;
+
+class TypedKafkaMessageDeserializerTest {
+
+    record Greeting(String text) {
+    }
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        KafkaPayloadTypes payloadTypes = new KafkaPayloadTypes();
+        payloadTypes.register("greet", new TypeReference<Greeting>() {
+        });
+        mapper = JacksonUtils.enhancedObjectMapper().registerModule(TypedKafkaMessageDeserializer.module(payloadTypes));
+    }
+
+    @Test
+    void typesPayloadEvenWhenOperationTypeComesLater() throws Exception {
+        KafkaMessage message = mapper.readValue(
+                "{\"payload\":{\"text\":\"hi\"},\"status\":\"SUCCESS\",\"operationType\":\"greet\"}", KafkaMessage.class);
+
+        assertThat(message.getPayload()).isEqualTo(new Greeting("hi"));
+    }
+
+    @Test
+    void readsEveryOtherFieldThroughTheBeanDeserializer() throws Exception {
+        KafkaMessage message = mapper.readValue("""
+                {"messageId":"m-1","author":"a","operationType":"greet","status":"ERROR",
+                 "payload":{"text":"hi"},"createdAt":"2024-05-01T10:15:30","deadline":42,"version":7,
+                 "errorCode":"E1","errorMessage":"boom","errorDetails":{"k":"v"},"unknown":[1,2]}
+                """, KafkaMessage.class);
+
+        assertThat(message.getMessageId()).isEqualTo("m-1");
+        assertThat(message.getAuthor()).isEqualTo("a");
+        assertThat(message.getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+        assertThat(message.getDeadline()).isEqualTo(42L);
+        assertThat(message.getVersion()).isEqualTo(7L);
+        assertThat(message.getErrorCode()).isEqualTo("E1");
+        assertThat(message.getErrorMessage()).isEqualTo("boom");
+        assertThat(message.getErrorDetails()).isEqualTo(Map.of("k", "v"));
+        // Error replies keep an untyped payload
+        assertThat(message.getPayload()).isEqualTo(Map.of("text", "hi"));
+    }
+
+    @Test
+    void leavesNullAndUnregisteredPayloadsUntyped() throws Exception {
+        assertThat(mapper.readValue("{\"operationType\":\"greet\",\"payload\":null}", KafkaMessage.class).getPayload())
+                .isNull();
+        assertThat(mapper.readValue("{\"operationType\":\"other\",\"payload\":[1]}", KafkaMessage.class).getPayload())
+                .isEqualTo(List.of(1));
+    }
+}
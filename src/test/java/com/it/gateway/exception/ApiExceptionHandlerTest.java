@@ -0,0 +1,58 @@
+package com.it.gateway.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.it.gateway.model.General.ApiResponse;
+
+class ApiExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void asyncTimeoutPutsCodeAndMessageInTheirFields() {
+        ResponseEntity<ApiResponse<Void>> response = new ApiExceptionHandler()
+                .handleAsyncTimeout(new AsyncRequestTimeoutException());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(504);
+        assertThat(response.getBody().getErrorCode()).isEqualTo(ApiException.ErrorCode.GATEWAY_TIMEOUT);
+        assertThat(response.getBody().getErrorMessage()).isEqualTo("Request timed out");
+    }
+
+    @Test
+    void fallbackAnswersGeneric500WithoutExceptionText() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Object resolved = new FallbackExceptionResolver(objectMapper).resolveException(new MockHttpServletRequest(),
+                response, null, new CompletionException(new IllegalStateException("db password=secret")));
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(resolved).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(body.get("errorCode").asText()).isEqualTo(ApiException.ErrorCode.INTERNAL_ERROR);
+        assertThat(body.get("errorMessage").asText()).isEqualTo("Internal server error");
+        assertThat(response.getContentAsString()).doesNotContain("secret");
+    }
+
+    @Test
+    void fallbackLeavesSecurityExceptionsToTheFilterChain() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Object resolved = new FallbackExceptionResolver(objectMapper).resolveException(new MockHttpServletRequest(),
+                response, null, new AccessDeniedException("denied"));
+
+        assertThat(resolved).isNull();
+        assertThat(response.getContentLength()).isZero();
+    }
+}
@@ -0,0 +1,129 @@
+package com.it.gateway.service.Kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DownstreamCircuitBreakersTest {
+
+    private static final String TOPIC = "topic";
+
+    private DownstreamCircuitBreakers breakers;
+
+    @BeforeEach
+    void setUp() {
+        breakers = new DownstreamCircuitBreakers(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(breakers, "enabled", true);
+        ReflectionTestUtils.setField(breakers, "windowSize", 10);
+        ReflectionTestUtils.setField(breakers, "minimumCalls", 4);
+        ReflectionTestUtils.setField(breakers, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(breakers, "timeoutRateThreshold", 0.5);
+        ReflectionTestUtils.setField(breakers, "openDurationMs", 50L);
+        ReflectionTestUtils.setField(breakers, "probeCalls", 2);
+    }
+
+    @Test
+    void opensOnPublishFailuresAndRejectsWhileOpen() {
+        call(ok());
+        call(ok());
+        call(failed(ApiException.ErrorCode.SERVICE_UNAVAILABLE));
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.CLOSED);
+
+        call(failed(ApiException.ErrorCode.SERVICE_UNAVAILABLE));
+
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.OPEN);
+        assertThatThrownBy(() -> call(ok()).get())
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .hasFieldOrPropertyWithValue("errorCode", ApiException.ErrorCode.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void opensOnReplyTimeouts() {
+        for (int i = 0; i < 4; i++) {
+            call(failed(ApiException.ErrorCode.GATEWAY_TIMEOUT));
+        }
+
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.OPEN);
+    }
+
+    @Test
+    void ignoresLocalCapacityRejectionsAndBackendErrorReplies() {
+        for (int i = 0; i < 10; i++) {
+            call(failed(ApiException.ErrorCode.GATEWAY_OVERLOADED));
+            call(failed(ApiException.ErrorCode.UNAUTHORIZED));
+        }
+        breakers.execute(TOPIC, "r", () -> {
+            throw new ApiException(ApiException.ErrorCode.GATEWAY_OVERLOADED, "Too many pending requests", 503, "r");
+        });
+
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.CLOSED);
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+
+        call(ok());
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.HALF_OPEN);
+        call(ok());
+
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenAProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+
+        call(failed(ApiException.ErrorCode.GATEWAY_TIMEOUT));
+
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.OPEN);
+    }
+
+    @Test
+    void limitsConcurrentProbes() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        call(first);
+        call(second);
+
+        assertThat(call(ok())).isCompletedExceptionally();
+        first.complete("ok");
+        second.complete("ok");
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.CLOSED);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(failed(ApiException.ErrorCode.SERVICE_UNAVAILABLE));
+        }
+        assertThat(breakers.getState(TOPIC)).isEqualTo(DownstreamCircuitBreakers.State.OPEN);
+    }
+
+    private CompletableFuture<String> call(CompletableFuture<String> outcome) {
+        return breakers.execute(TOPIC, "r", () -> outcome);
+    }
+
+    private static CompletableFuture<String> ok() {
+        return CompletableFuture.completedFuture("ok");
+    }
+
+    private static CompletableFuture<String> failed(String errorCode) {
+        return CompletableFuture.failedFuture(new ApiException(errorCode, "failed", 503, "r"));
+    }
+}
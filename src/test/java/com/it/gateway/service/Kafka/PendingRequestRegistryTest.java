@@ -0,0 +1,175 @@
+package com.it.gateway.service.Kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.it.gateway.exception.ApiException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PendingRequestRegistryTest {
+
+    private PendingRequestRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PendingRequestRegistry(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "defaultTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(registry, "maxPendingRequests", 100_000);
+        ReflectionTestUtils.setField(registry, "tickMs", 5L);
+        ReflectionTestUtils.setField(registry, "wheelSize", 64);
+        ReflectionTestUtils.setField(registry, "expiryThreads", 2);
+        registry.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.stop();
+    }
+
+    @Test
+    void expiresWithGatewayTimeoutOffTheWheelThread() throws Exception {
+        CompletableFuture<String> future = registry.register("r1", "op", Duration.ofMillis(200));
+        CompletableFuture<String> thread = future.handle((value, error) -> Thread.currentThread().getName());
+
+        // Wait on the dependent only: a thread waiting on the source may run its dependents itself
+        assertThat(thread.get(1, TimeUnit.SECONDS)).startsWith("kafka-reply-expiry-");
+        assertThat(errorCodeOf(future)).isEqualTo(ApiException.ErrorCode.GATEWAY_TIMEOUT);
+        assertThat(registry.size()).isZero();
+        assertThat((Object) registry.take("r1")).isNull();
+    }
+
+    @Test
+    void zeroTimeoutStillExpires() throws InterruptedException {
+        CompletableFuture<String> future = registry.register("r1", "op", Duration.ZERO);
+
+        assertThat(errorCodeOf(future)).isEqualTo(ApiException.ErrorCode.GATEWAY_TIMEOUT);
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void takeCancelsTheTimeout() throws InterruptedException {
+        CompletableFuture<String> future = registry.register("r1", "op", Duration.ofMillis(20));
+
+        CompletableFuture<String> taken = registry.take("r1");
+        taken.complete("reply");
+        Thread.sleep(60);
+
+        assertThat(future.join()).isEqualTo("reply");
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void duplicateRequestIdIsRejectedWithoutTouchingTheFirst() {
+        CompletableFuture<String> first = registry.register("r1", "op", Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> registry.register("r1", "op", Duration.ofSeconds(5)))
+                .isInstanceOf(ApiException.class)
+                .extracting(e -> ((ApiException) e).getErrorCode())
+                .isEqualTo(ApiException.ErrorCode.CONFLICT);
+        assertThat(first).isNotDone();
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void repliesRacingExpiryCompleteEachRequestExactlyOnce() throws Exception {
+        int count = 5_000;
+        List<CompletableFuture<String>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(registry.register("r" + i, "op", Duration.ofMillis(i % 20)));
+        }
+
+        AtomicInteger answered = new AtomicInteger();
+        ExecutorService repliers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < count; i++) {
+            String requestId = "r" + i;
+            repliers.execute(() -> {
+                CompletableFuture<String> future = registry.take(requestId);
+                if (future != null && future.complete("reply")) {
+                    answered.incrementAndGet();
+                }
+            });
+        }
+        repliers.shutdown();
+        assertThat(repliers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        int timedOut = 0;
+        for (CompletableFuture<String> future : futures) {
+            try {
+                future.get(1, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                timedOut++;
+            }
+        }
+        assertThat(answered.get() + timedOut).isEqualTo(count);
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void clientDeadlineFailsOnlyTheView() throws InterruptedException {
+        CompletableFuture<String> future = registry.register("r1", "op", Duration.ofSeconds(5));
+        CompletableFuture<String> view = registry.withDeadline(future, "op", "r1", Duration.ofMillis(20));
+
+        assertThat(errorCodeOf(view)).isEqualTo(ApiException.ErrorCode.GATEWAY_TIMEOUT);
+        assertThat(future).isNotDone();
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void replyBeforeTheLocalDeadlineIsNotLate() {
+        CompletableFuture<String> future = registry.register("r1", "op", Duration.ofSeconds(5));
+
+        assertThat(registry.expireIfPastDeadline("r1")).isFalse();
+        assertThat(registry.expireIfPastDeadline("unknown")).isFalse();
+        assertThat(future).isNotDone();
+        assertThat(registry.isPending("r1")).isTrue();
+    }
+
+    @Test
+    void replyAfterTheLocalDeadlineExpiresTheRequestBeforeTheWheelDoes() throws InterruptedException {
+        PendingRequestRegistry slowWheel = new PendingRequestRegistry(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(slowWheel, "defaultTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(slowWheel, "maxPendingRequests", 10);
+        ReflectionTestUtils.setField(slowWheel, "tickMs", 10_000L);
+        ReflectionTestUtils.setField(slowWheel, "wheelSize", 8);
+        ReflectionTestUtils.setField(slowWheel, "expiryThreads", 1);
+        slowWheel.start();
+        try {
+            CompletableFuture<String> future = slowWheel.register("r1", "op", Duration.ofMillis(10));
+            Thread.sleep(30);
+
+            assertThat(slowWheel.expireIfPastDeadline("r1")).isTrue();
+            assertThat(errorCodeOf(future)).isEqualTo(ApiException.ErrorCode.GATEWAY_TIMEOUT);
+            assertThat(slowWheel.expireIfPastDeadline("r1")).isFalse();
+            assertThat(slowWheel.size()).isZero();
+        } finally {
+            slowWheel.stop();
+        }
+    }
+
+    private static String errorCodeOf(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return ((ApiException) e.getCause()).getErrorCode();
+        } catch (java.util.concurrent.TimeoutException e) {
+            return "NOT_COMPLETED";
+        }
+    }
+}
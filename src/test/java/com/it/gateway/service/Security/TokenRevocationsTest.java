@@ -0,0 +1,107 @@
+package com.it.gateway.service.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.it.gateway.service.Redis.RedisService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class TokenRevocationsTest {
+
+    private TokenRevocations revocations;
+
+    @BeforeEach
+    void setUp() {
+        // Redis never returns anything, so every revocation must survive a sync by carry-over
+        RedisService redisService = mock(RedisService.class);
+        when(redisService.zRangeByScoreWithScores(anyString(), anyDouble(), anyDouble())).thenReturn(Set.of());
+        when(redisService.hGetAll(any())).thenReturn(Map.of());
+
+        revocations = new TokenRevocations(redisService, mock(StringRedisTemplate.class),
+                mock(RedisMessageListenerContainer.class));
+        // Session mode: no scheduled sync or listener, the test drives sync() itself
+        ReflectionTestUtils.setField(revocations, "validationMode", "session");
+        ReflectionTestUtils.setField(revocations, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(revocations, "expectedEntries", 1_000L);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revocations, "channel", "revocations");
+        revocations.start();
+    }
+
+    @Test
+    void revokedTokenStaysRevokedAcrossSync() {
+        VerifiedToken token = token("jti-1", "alice", System.currentTimeMillis() - 5_000);
+        revocations.revokeToken(token);
+
+        sync();
+
+        assertThat(revocations.isRevoked(token)).isTrue();
+        assertThat(revocations.isRevoked(token("jti-2", "alice", System.currentTimeMillis() - 5_000))).isFalse();
+    }
+
+    @Test
+    void userCutoffRevokesOnlyEarlierTokens() {
+        long issuedBefore = System.currentTimeMillis() - 5_000;
+        revocations.revokeUser("alice");
+
+        sync();
+
+        assertThat(revocations.isRevoked(token("a", "alice", issuedBefore))).isTrue();
+        assertThat(revocations.isRevoked(token("b", "alice", System.currentTimeMillis() + 2_000))).isFalse();
+        assertThat(revocations.isRevoked(token("c", "bob", issuedBefore))).isFalse();
+    }
+
+    @Test
+    void revocationsAppliedDuringSyncAreNeverLost() throws Exception {
+        AtomicBoolean revoking = new AtomicBoolean(true);
+        CompletableFuture<Void> syncing = CompletableFuture.runAsync(() -> {
+            while (revoking.get()) {
+                sync();
+            }
+        });
+
+        long issuedAt = System.currentTimeMillis() - 5_000;
+        int count = 5_000;
+        for (int i = 0; i < count; i++) {
+            revocations.revokeToken(token("jti-" + i, "user", issuedAt));
+        }
+        revoking.set(false);
+        syncing.get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < count; i++) {
+            assertThat(revocations.isRevoked(token("jti-" + i, "user", issuedAt))).as("jti-" + i).isTrue();
+        }
+    }
+
+    private void sync() {
+        ReflectionTestUtils.invokeMethod(revocations, "sync");
+    }
+
+    private static VerifiedToken token(String jti, String username, long issuedAt) {
+        Claims claims = Jwts.claims()
+                .setId(jti)
+                .setSubject(username)
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(System.currentTimeMillis() + 600_000));
+        return new VerifiedToken("token-" + jti, "digest-" + jti, claims, null);
+    }
+}
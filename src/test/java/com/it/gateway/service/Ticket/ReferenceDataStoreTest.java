@@ -0,0 +1,62 @@
+package com.it.gateway.service.Ticket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it.gateway.model.General.CachedValue;
+import com.it.gateway.model.Ticket.CategoryInfo;
+import com.it.gateway.utils.EncodedJson;
+
+class ReferenceDataStoreTest {
+
+    private final ReferenceDataStore<CategoryInfo> store = new ReferenceDataStore<>(
+        "category",
+        CategoryInfo::getId,
+        CategoryInfo::getCode,
+        Comparator.comparing(CategoryInfo::getCode),
+        category -> Boolean.TRUE.equals(category.getIsActive())
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void answersFromTheStoredEtagWhileTheEncodedListIsCurrent() {
+        List<CategoryInfo> list = List.of(category("a"), category("b"));
+        String etag = encode(list).etag();
+
+        assertThat(store.currentEtag(list, false)).isEqualTo(etag);
+        // The active-only view has not been encoded yet
+        assertThat(store.currentEtag(list, true)).isNull();
+    }
+
+    @Test
+    void invalidatedOrReplacedListHasNoCurrentEtag() {
+        List<CategoryInfo> list = List.of(category("a"));
+        encode(list);
+
+        assertThat(store.currentEtag(null, false)).isNull();
+        assertThat(store.currentEtag(new ArrayList<>(list), false)).isNull();
+        assertThat(store.currentEtag(List.of(category("a"), category("c")), false)).isNull();
+    }
+
+    private EncodedJson encode(List<CategoryInfo> list) {
+        return store.allEncoded(CompletableFuture.completedFuture(new CachedValue<>(list, 0L)), false, objectMapper, "r")
+                .join().getValue();
+    }
+
+    private static CategoryInfo category(String code) {
+        CategoryInfo category = new CategoryInfo();
+        category.setId(UUID.randomUUID());
+        category.setCode(code);
+        category.setIsActive(true);
+        return category;
+    }
+}
@@ -0,0 +1,71 @@
+package com.it.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter bloom = new BloomFilter(1_000, 0.01);
+        List<String> added = new ArrayList<>();
+        // Well past the expected insertions: false positives grow, false negatives must not appear
+        for (int i = 0; i < 10_000; i++) {
+            String value = UUID.randomUUID().toString();
+            bloom.add(value);
+            added.add(value);
+        }
+
+        assertThat(added).allMatch(bloom::mightContain);
+    }
+
+    @Test
+    void neverLosesValuesAddedConcurrently() throws Exception {
+        BloomFilter bloom = new BloomFilter(100_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> writers = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                writers.add(executor.submit(() -> {
+                    List<String> values = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        String value = UUID.randomUUID().toString();
+                        bloom.add(value);
+                        values.add(value);
+                    }
+                    return values;
+                }));
+            }
+            for (Future<List<String>> writer : writers) {
+                assertThat(writer.get(10, TimeUnit.SECONDS)).allMatch(bloom::mightContain);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add("added-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
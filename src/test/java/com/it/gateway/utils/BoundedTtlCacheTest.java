@@ -0,0 +1,134 @@
+package com.it.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+    private final List<Map.Entry<String, String>> removed = new CopyOnWriteArrayList<>();
+
+    private BoundedTtlCache<String, String> cache(int maxSize, Duration ttl) {
+        return new BoundedTtlCache<>(maxSize, ttl, (key, value) -> removed.add(Map.entry(key, value)));
+    }
+
+    @Test
+    void evictsAnEntryThatWasNotReadSinceTheLastPass() {
+        BoundedTtlCache<String, String> cache = cache(3, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+
+        cache.put("d", "4");
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(removed).containsExactly(Map.entry("b", "2"));
+    }
+
+    @Test
+    void staysWithinItsBoundWhenEveryEntryIsHot() {
+        BoundedTtlCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("k" + i, "v" + i);
+            for (int j = Math.max(0, i - 20); j <= i; j++) {
+                cache.get("k" + j);
+            }
+            assertThat(cache.size()).isLessThanOrEqualTo(10);
+        }
+        assertThat(removed).hasSize(990);
+    }
+
+    @Test
+    void staysWithinItsBoundUnderConcurrentWriters() throws Exception {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(100, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(thread + ":" + i, "v");
+                        cache.get(thread + ":" + (i / 2));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        cache.put("last", "v");
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void expiredEntryIsDroppedOnRead() throws InterruptedException {
+        BoundedTtlCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        cache.put("a", "1", Duration.ofMillis(5));
+        cache.put("b", "2");
+        Thread.sleep(20);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(removed).containsExactly(Map.entry("a", "1"));
+    }
+
+    @Test
+    void reportsReplacedValuesButNotEqualOnes() {
+        BoundedTtlCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("a", new String("1"));
+        assertThat(removed).isEmpty();
+
+        cache.put("a", "2");
+
+        assertThat(cache.get("a")).isEqualTo("2");
+        assertThat(removed).containsExactly(Map.entry("a", "1"));
+    }
+
+    @Test
+    void reportsRemovedAndClearedEntries() {
+        BoundedTtlCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.remove("a");
+        cache.remove("missing");
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(removed).containsExactly(Map.entry("a", "1"), Map.entry("b", "2"));
+    }
+
+    @Test
+    void replacingOneKeyRepeatedlyKeepsTheOtherEntries() {
+        BoundedTtlCache<String, String> cache = cache(3, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        for (int i = 0; i < 100; i++) {
+            cache.put("c", "v" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isEqualTo("2");
+        assertThat(cache.get("c")).isEqualTo("v99");
+    }
+}
@@ -0,0 +1,93 @@
+package com.it.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedTimerWheelTest {
+
+    private ExecutorService executor;
+    private HashedTimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "wheel-test-task"));
+        wheel = new HashedTimerWheel("wheel-test", Duration.ofMillis(5), 8, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void firesDueTaskOnTheTaskExecutor() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        HashedTimerWheel.Timeout timeout = wheel.schedule(() -> {
+            thread.set(Thread.currentThread().getName());
+            fired.countDown();
+        }, Duration.ofMillis(20));
+
+        assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(thread.get()).isEqualTo("wheel-test-task");
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+    }
+
+    @Test
+    void firesTasksDelayedBeyondOneRotation() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // 8 slots of 5 ms: 100 ms needs more than two rotations
+        wheel.schedule(fired::countDown, Duration.ofMillis(100));
+
+        assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(95);
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        HashedTimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, Duration.ofMillis(20));
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        Thread.sleep(80);
+
+        assertThat(runs.get()).isZero();
+        assertThat(timeout.isExpired()).isFalse();
+    }
+
+    @Test
+    void cancelRacingExpiryRunsTaskAtMostOnce() throws InterruptedException {
+        int count = 2_000;
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        HashedTimerWheel.Timeout[] timeouts = new HashedTimerWheel.Timeout[count];
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = wheel.schedule(runs::incrementAndGet, Duration.ofMillis(i % 10));
+        }
+        for (HashedTimerWheel.Timeout timeout : timeouts) {
+            if (timeout.cancel()) {
+                cancelled.incrementAndGet();
+            }
+        }
+        Thread.sleep(100);
+
+        assertThat(runs.get() + cancelled.get()).isEqualTo(count);
+    }
+}